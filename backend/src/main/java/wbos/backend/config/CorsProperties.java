@@ -29,12 +29,12 @@ public class CorsProperties {
 
 
     private List<String> allowedHeaders = List.of(
-        "Authorization", "Content-Type", "Accept", "X-Requested-With"
+        "Authorization", "Content-Type", "Accept", "X-Requested-With", "If-None-Match", "Last-Event-ID"
     );
 
 
     private List<String> exposedHeaders = List.of(
-        "X-Total-Count", "X-Page-Number", "X-Page-Size"
+        "X-Total-Count", "X-Page-Number", "X-Page-Size", "X-Sync-Watermark", "ETag"
     );
 
 
@@ -4,32 +4,104 @@ import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
 import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Provides the shared Docker Engine API client
+ *
+ * DockerClient is thread-safe, so a single instance backed by a pooled HTTP transport is
+ * reused by every caller instead of building and closing a client per request. Callers
+ * must not close the returned client; it is closed when the application shuts down.
+ */
 @Component
 @Slf4j
-public class DockerClientFactory {
+public class DockerClientFactory implements MeterBinder {
 
-    private final String dockerHost;
+    private final DockerProperties dockerProperties;
 
-    public DockerClientFactory(@Value("${app.docker.host:unix:///var/run/docker.sock}") String dockerHost) {
-        this.dockerHost = dockerHost;
-        log.info("Docker client factory configured with host: {}", dockerHost);
+    private volatile DockerClient client;
+    private volatile InstrumentedDockerHttpClient httpClient;
+
+    public DockerClientFactory(DockerProperties dockerProperties) {
+        this.dockerProperties = dockerProperties;
+        log.info("Docker client factory configured with host: {} (max connections: {})",
+                dockerProperties.getHost(), dockerProperties.getPool().getMaxConnections());
+    }
+
+    /**
+     * Returns the shared client, creating it on first use
+     *
+     * @return Shared, pooled DockerClient
+     */
+    public DockerClient getClient() {
+        DockerClient result = client;
+        if (result == null) {
+            synchronized (this) {
+                result = client;
+                if (result == null) {
+                    result = createClient();
+                    client = result;
+                }
+            }
+        }
+        return result;
     }
 
-    public DockerClient createClient() {
+    private DockerClient createClient() {
         DefaultDockerClientConfig config = DefaultDockerClientConfig
                 .createDefaultConfigBuilder()
-                .withDockerHost(dockerHost)
+                .withDockerHost(dockerProperties.getHost())
                 .build();
 
-        ZerodepDockerHttpClient httpClient = new ZerodepDockerHttpClient.Builder()
+        DockerProperties.Pool pool = dockerProperties.getPool();
+        ZerodepDockerHttpClient.Builder builder = new ZerodepDockerHttpClient.Builder()
                 .dockerHost(config.getDockerHost())
                 .sslConfig(config.getSSLConfig())
-                .build();
+                .maxConnections(pool.getMaxConnections())
+                .connectionTimeout(pool.getConnectTimeout());
+        if (pool.getResponseTimeout() != null) {
+            builder.responseTimeout(pool.getResponseTimeout());
+        }
 
+        httpClient = new InstrumentedDockerHttpClient(builder.build());
+        log.info("Created shared Docker client for host: {}", dockerProperties.getHost());
         return DockerClientImpl.getInstance(config, httpClient);
     }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("docker.client.pool.max", dockerProperties.getPool(), DockerProperties.Pool::getMaxConnections)
+                .description("Maximum pooled connections to the Docker daemon")
+                .register(registry);
+        Gauge.builder("docker.client.pool.leased", this, f -> f.httpClient != null ? f.httpClient.getLeased() : 0)
+                .description("Connections currently leased for in-flight Docker API requests")
+                .register(registry);
+        Gauge.builder("docker.client.pool.leased.peak", this, f -> f.httpClient != null ? f.httpClient.getPeakLeased() : 0)
+                .description("Highest number of simultaneously leased connections")
+                .register(registry);
+        FunctionCounter.builder("docker.client.requests", this, f -> f.httpClient != null ? f.httpClient.getRequests() : 0)
+                .description("Docker API requests sent through the shared client")
+                .register(registry);
+        FunctionCounter.builder("docker.client.request.failures", this, f -> f.httpClient != null ? f.httpClient.getFailures() : 0)
+                .description("Docker API requests that failed at the transport level")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (client != null) {
+            try {
+                client.close();
+                log.info("Closed shared Docker client");
+            } catch (Exception e) {
+                log.warn("Failed to close shared Docker client", e);
+            }
+        }
+    }
 }
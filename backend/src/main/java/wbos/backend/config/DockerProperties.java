@@ -0,0 +1,41 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Docker Client Configuration Properties
+ *
+ * Configures the shared Docker Engine API client via app.docker in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.docker")
+@Data
+public class DockerProperties {
+
+
+    private String host = "unix:///var/run/docker.sock";
+
+
+    private Pool pool = new Pool();
+
+    @Data
+    public static class Pool {
+
+        /**
+         * Maximum number of pooled connections to the Docker daemon
+         */
+        private int maxConnections = 50;
+
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Socket read timeout per request. Leave unset so long-lived log follow streams are not cut off
+         */
+        private Duration responseTimeout;
+    }
+}
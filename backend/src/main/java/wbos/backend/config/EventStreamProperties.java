@@ -0,0 +1,44 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Event Stream Configuration Properties
+ *
+ * Settings for the Server-Sent Event streams (database status events and log follow).
+ * Configured via app.events in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.events")
+@Data
+public class EventStreamProperties {
+
+    /**
+     * Number of recent events kept for replay when a client reconnects with Last-Event-ID
+     */
+    private int historySize = 500;
+
+    /**
+     * How long a single SSE connection stays open before the client has to reconnect
+     */
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Interval between keep-alive comments sent to idle connections
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Log lines buffered per follow stream before the Docker log stream is paused
+     */
+    private int logBufferSize = 1000;
+
+    /**
+     * Largest tail a log request may ask for; larger values are rejected with 400
+     */
+    private int maxLogTail = 10000;
+}
@@ -0,0 +1,42 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import wbos.backend.enums.DatabaseType;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Image Cache Configuration Properties
+ *
+ * Configured via app.images in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.images")
+@Data
+public class ImageCacheProperties {
+
+    /**
+     * Pull the default image of every type, plus the configured versions, at startup and on refresh
+     */
+    private boolean prePull = true;
+
+    /**
+     * Additional versions to keep pulled, per database type
+     */
+    private Map<DatabaseType, List<String>> versions = new EnumMap<>(DatabaseType.class);
+
+    /**
+     * How often missing images are pulled again and unused ones evicted
+     */
+    private Duration refreshInterval = Duration.ofHours(6);
+
+    /**
+     * Remove database images that are not pre-pulled and were not used for this long; null keeps them forever
+     */
+    private Duration evictAfter = Duration.ofDays(14);
+}
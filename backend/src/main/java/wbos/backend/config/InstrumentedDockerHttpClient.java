@@ -0,0 +1,106 @@
+package wbos.backend.config;
+
+import com.github.dockerjava.transport.DockerHttpClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorates the pooled Docker HTTP transport with lease counters
+ *
+ * A connection counts as leased from the moment a request is sent until its response is closed,
+ * which is what the underlying pool sees; the counters back the docker.client.pool.* meters.
+ */
+class InstrumentedDockerHttpClient implements DockerHttpClient {
+
+    private final DockerHttpClient delegate;
+
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger peakLeased = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    InstrumentedDockerHttpClient(DockerHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Response execute(Request request) {
+        requests.incrementAndGet();
+        peakLeased.accumulateAndGet(leased.incrementAndGet(), Math::max);
+        try {
+            return new LeasedResponse(delegate.execute(request));
+        } catch (RuntimeException e) {
+            leased.decrementAndGet();
+            failures.incrementAndGet();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    int getLeased() {
+        return leased.get();
+    }
+
+    int getPeakLeased() {
+        return peakLeased.get();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getFailures() {
+        return failures.get();
+    }
+
+    private final class LeasedResponse implements Response {
+
+        private final Response response;
+        private boolean released;
+
+        private LeasedResponse(Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.getBody();
+        }
+
+        @Override
+        public synchronized void close() {
+            try {
+                response.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    leased.decrementAndGet();
+                }
+            }
+        }
+    }
+}
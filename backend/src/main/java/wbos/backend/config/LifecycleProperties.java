@@ -0,0 +1,36 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import wbos.backend.enums.LifecycleOperation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Lifecycle Executor Configuration Properties
+ *
+ * Bounds the background work started by provision, update, destroy and start/stop requests.
+ * Configured via app.lifecycle in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.lifecycle")
+@Data
+public class LifecycleProperties {
+
+    /**
+     * Maximum operations of each kind running at the same time
+     */
+    private Map<LifecycleOperation, Integer> maxConcurrent = new EnumMap<>(Map.of(
+        LifecycleOperation.PROVISION, 8,
+        LifecycleOperation.UPDATE, 4,
+        LifecycleOperation.DESTROY, 8,
+        LifecycleOperation.CONTROL, 16
+    ));
+
+    /**
+     * Maximum operations waiting for a slot across all kinds; further submissions are rejected
+     */
+    private int maxQueued = 200;
+}
@@ -0,0 +1,38 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Operation Tracking Configuration Properties
+ *
+ * Configured via app.operations in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.operations")
+@Data
+public class OperationProperties {
+
+    /**
+     * How long finished operations stay readable through GET /operations/{id}
+     */
+    private Duration retention = Duration.ofMinutes(15);
+
+    /**
+     * Interval between sweeps that drop expired operations
+     */
+    private Duration cleanupInterval = Duration.ofSeconds(60);
+
+    /**
+     * Long-poll wait when a request passes ?version= without ?wait=
+     */
+    private Duration defaultWait = Duration.ofSeconds(20);
+
+    /**
+     * Upper bound for ?wait=
+     */
+    private Duration maxWait = Duration.ofSeconds(60);
+}
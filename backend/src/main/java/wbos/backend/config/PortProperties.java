@@ -0,0 +1,35 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Port Allocation Configuration Properties
+ *
+ * Configured via app.ports in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.ports")
+@Data
+public class PortProperties {
+
+    /**
+     * Ports never handed out automatically (5432 is the platform database)
+     */
+    private List<Integer> reserved = List.of(5432);
+
+    /**
+     * Highest port handed out automatically
+     */
+    private int max = 65535;
+
+    /**
+     * Also try binding each candidate port before handing it out, skipping ports held by
+     * processes outside this application. Only meaningful when the backend shares the
+     * host's network namespace.
+     */
+    private boolean checkHostAvailability = false;
+}
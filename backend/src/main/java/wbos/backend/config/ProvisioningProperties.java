@@ -0,0 +1,82 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import wbos.backend.enums.DatabaseType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provisioning Configuration Properties
+ *
+ * Configured via app.provisioning in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.provisioning")
+@Data
+public class ProvisioningProperties {
+
+    /**
+     * Provisioning engine: terraform or docker
+     */
+    private String engine = "terraform";
+
+
+    private Batch batch = new Batch();
+
+    private WarmPool warmPool = new WarmPool();
+
+    @Data
+    public static class Batch {
+
+        /**
+         * Maximum number of databases accepted in one batch request
+         */
+        private int maxSize = 50;
+
+        /**
+         * Maximum databases of one batch provisioned at the same time
+         */
+        private int maxParallel = 5;
+    }
+
+    @Data
+    public static class WarmPool {
+
+        /**
+         * Keep idle, initialised containers that new databases can claim (docker engine only)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Standby containers to keep per database type and version
+         */
+        private List<Target> targets = new ArrayList<>();
+
+        /**
+         * How often the pool is topped up in the background
+         */
+        private Duration refillInterval = Duration.ofSeconds(30);
+
+        /**
+         * How long a new standby container may take to accept connections before it is discarded
+         */
+        private Duration readyTimeout = Duration.ofMinutes(2);
+    }
+
+    @Data
+    public static class Target {
+
+        private DatabaseType type;
+
+        /**
+         * Image version tag, null for the type default
+         */
+        private String version;
+
+        private int size = 1;
+    }
+}
@@ -0,0 +1,43 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Readiness Probe Configuration Properties
+ *
+ * Configured via app.readiness in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.readiness")
+@Data
+public class ReadinessProperties {
+
+    /**
+     * Probe the engine before marking a database RUNNING; when disabled a successful apply or start is enough
+     */
+    private boolean enabled = true;
+
+    /**
+     * Host the published database ports are reachable on from the backend
+     */
+    private String host = "localhost";
+
+    /**
+     * How long a database may take to accept connections before it is marked FAILED
+     */
+    private Duration timeout = Duration.ofMinutes(2);
+
+    /**
+     * Pause between probe attempts
+     */
+    private Duration interval = Duration.ofMillis(250);
+
+    /**
+     * Connect and read timeout of a single probe attempt
+     */
+    private Duration attemptTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,60 @@
+package wbos.backend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Container Statistics Configuration Properties
+ *
+ * Configured via app.stats in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.stats")
+@Data
+public class StatsProperties {
+
+    /**
+     * Sample CPU, memory, network and block I/O of every RUNNING database
+     */
+    private boolean enabled = true;
+
+    /**
+     * Pause between two sampling rounds
+     */
+    private Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * How long one container's stats call may take before the sample is skipped
+     */
+    private Duration sampleTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Resolutions samples are kept at, finest first; each keeps its last {@code capacity} points
+     */
+    private List<Tier> tiers = new ArrayList<>(List.of(
+            new Tier(Duration.ofSeconds(5), 720),
+            new Tier(Duration.ofMinutes(1), 1440),
+            new Tier(Duration.ofHours(1), 336)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+        /**
+         * Time covered by one point; samples within it are averaged, memory and CPU also keep their peak
+         */
+        private Duration resolution;
+
+        /**
+         * Points retained, so the tier covers resolution * capacity
+         */
+        private int capacity;
+    }
+}
@@ -0,0 +1,42 @@
+package wbos.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Terraform Configuration Properties
+ *
+ * Controls where per-database working directories live and how provider
+ * plugins are shared between them. Configured via app.terraform in application.yml
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.terraform")
+@Data
+public class TerraformProperties {
+
+
+    private String baseDir = "/tmp/terraform";
+
+
+    private PluginCache pluginCache = new PluginCache();
+
+    @Data
+    public static class PluginCache {
+
+        /**
+         * When disabled every working directory resolves providers on its own (legacy behaviour)
+         */
+        private boolean enabled = true;
+
+        /**
+         * Shared plugin cache; working directories link into it instead of unpacking their own copy
+         */
+        private String dir = "/tmp/terraform/.plugin-cache";
+
+        /**
+         * Local filesystem mirror populated once at startup so init never has to reach the registry
+         */
+        private String mirrorDir = "/tmp/terraform/.provider-mirror";
+    }
+}
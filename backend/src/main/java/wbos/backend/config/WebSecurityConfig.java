@@ -50,8 +50,8 @@ public class WebSecurityConfig {
 
             // Authorization rules
             .authorizeHttpRequests(auth -> auth
-                // Actuator endpoints for health checks
-                .requestMatchers("/actuator/health", "/actuator/info").permitAll()
+                // Actuator endpoints for health checks and metrics scraping
+                .requestMatchers("/actuator/health", "/actuator/info", "/actuator/prometheus").permitAll()
 
                 // Phase 1: Permit all requests (no authentication)
                 .anyRequest().permitAll()
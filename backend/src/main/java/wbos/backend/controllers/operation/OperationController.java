@@ -0,0 +1,76 @@
+package wbos.backend.controllers.operation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import wbos.backend.config.OperationProperties;
+import wbos.backend.dto.operation.OperationDto;
+import wbos.backend.service.infrastructure.OperationTracker;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/operations")
+@RequiredArgsConstructor
+@Slf4j
+public class OperationController {
+
+    private final OperationTracker operationTracker;
+    private final OperationProperties operationProperties;
+
+    /**
+     * Returns the phase, progress and last error of a provision or update
+     *
+     * Without version the current state is returned at once. With the version of a previous
+     * response the request is held until the operation changes, finishes, or wait (ISO-8601,
+     * default app.operations.default-wait, at most app.operations.max-wait) has passed; on
+     * timeout the unchanged state is returned. A wait of zero or less returns at once.
+     *
+     * @param id Operation id from the create or update response
+     * @param version Version the client already has
+     * @param wait Longest time to hold the request
+     * @return The operation, or 404 if it is unknown or has expired
+     */
+    @GetMapping("/{id}")
+    public DeferredResult<ResponseEntity<OperationDto>> getOperation(
+            @PathVariable String id,
+            @RequestParam(required = false) Long version,
+            @RequestParam(required = false) Duration wait) {
+
+        Duration timeout = wait != null ? wait : operationProperties.getDefaultWait();
+        if (timeout.compareTo(operationProperties.getMaxWait()) > 0) {
+            timeout = operationProperties.getMaxWait();
+        }
+
+        // A 0 ms async timeout would mean no timeout at all in the servlet container
+        DeferredResult<ResponseEntity<OperationDto>> result = new DeferredResult<>(Math.max(timeout.toMillis(), 1));
+        result.onTimeout(() -> result.setResult(current(id)));
+
+        if (version == null || timeout.isZero() || timeout.isNegative()) {
+            result.setResult(current(id));
+            return result;
+        }
+
+        CompletableFuture<OperationDto> change = operationTracker.awaitChange(id, version).orElse(null);
+        if (change == null) {
+            result.setResult(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+            return result;
+        }
+        change.thenAccept(operation -> result.setResult(ResponseEntity.ok(operation)));
+        return result;
+    }
+
+    private ResponseEntity<OperationDto> current(String id) {
+        return operationTracker.find(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+}
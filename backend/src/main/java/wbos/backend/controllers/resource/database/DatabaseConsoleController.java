@@ -5,9 +5,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import wbos.backend.dto.resource.database.ConsoleLogsResponse;
+import wbos.backend.dto.resource.database.ContainerStatsResponse;
 import wbos.backend.service.resource.database.DatabaseConsoleService;
 
+import java.time.Duration;
+import java.time.Instant;
+
 @RestController
 @RequestMapping("/databases")
 @RequiredArgsConstructor
@@ -16,14 +21,55 @@ public class DatabaseConsoleController {
 
     private final DatabaseConsoleService databaseConsoleService;
 
+    /**
+     * Returns the last {@code tail} container log lines
+     *
+     * The filter is a literal substring unless regex=true; ignoreCase applies to both.
+     * since/until take ISO-8601 instants and are passed through to Docker.
+     */
     @GetMapping("/{id}/logs")
     public ResponseEntity<ConsoleLogsResponse> getLogs(
             @PathVariable Long id,
             @RequestParam(defaultValue = "100") int tail,
-            @RequestParam(required = false) String filter) {
+            @RequestParam(required = false) String filter,
+            @RequestParam(defaultValue = "false") boolean regex,
+            @RequestParam(defaultValue = "false") boolean ignoreCase,
+            @RequestParam(required = false) Instant since,
+            @RequestParam(required = false) Instant until) {
+
+        log.info("Console logs: id={}, tail={}, filter={}, regex={}, ignoreCase={}, since={}, until={}",
+                id, tail, filter, regex, ignoreCase, since, until);
+        return ResponseEntity.ok(databaseConsoleService.getLogs(id, tail, filter, regex, ignoreCase, since, until));
+    }
+
+    /**
+     * Follows container logs as Server-Sent Events
+     *
+     * Sends the last {@code tail} lines, then new output as it is written. Closing the
+     * connection releases the underlying Docker log stream.
+     */
+    @GetMapping(value = "/{id}/logs/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter followLogs(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "100") int tail) {
+
+        log.info("Console follow logs: id={}, tail={}", id, tail);
+        return databaseConsoleService.followLogs(id, tail);
+    }
+
+    /**
+     * Returns sampled resource usage per retention tier
+     *
+     * since takes an ISO-8601 instant, resolution an ISO-8601 duration matching one of app.stats.tiers.
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ContainerStatsResponse> getStats(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant since,
+            @RequestParam(required = false) Duration resolution) {
 
-        log.info("Console logs: id={}, tail={}, filter={}", id, tail, filter);
-        return ResponseEntity.ok(databaseConsoleService.getLogs(id, tail, filter));
+        log.debug("Console stats: id={}, since={}, resolution={}", id, since, resolution);
+        return ResponseEntity.ok(databaseConsoleService.getStats(id, since, resolution));
     }
 
     @GetMapping(value = "/{id}/inspect", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -3,13 +3,22 @@ package wbos.backend.controllers.resource.database;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wbos.backend.dto.resource.database.BatchCreateDatabaseRequestDto;
+import wbos.backend.dto.resource.database.BatchProvisionResponseDto;
 import wbos.backend.dto.resource.database.CreateDataBaseRequestDto;
+import wbos.backend.dto.resource.database.DatabaseCredentialsDto;
+import wbos.backend.dto.resource.database.DatabaseListRequestDto;
 import wbos.backend.dto.resource.database.DatabaseResponseDto;
 import wbos.backend.dto.resource.database.UpdateDatabaseRequestDto;
+import wbos.backend.service.infrastructure.LifecycleMetrics;
 import wbos.backend.service.resource.database.DatabaseDetailsService;
+import wbos.backend.service.resource.database.DatabaseEventStreamService;
 import wbos.backend.service.resource.database.DatabaseProvisionService;
 import wbos.backend.service.resource.database.DatabaseUpdateService;
 import wbos.backend.service.resource.database.DatabaseDestroyService;
@@ -17,6 +26,7 @@ import wbos.backend.service.resource.database.DatabaseControlService;
 import wbos.backend.service.utlis.validation.RequestValidationService;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/databases")
@@ -30,31 +40,93 @@ public class DatabaseController {
     private final DatabaseUpdateService databaseUpdateService;
     private final DatabaseDestroyService databaseDestroyService;
     private final DatabaseControlService databaseControlService;
+    private final DatabaseEventStreamService databaseEventStreamService;
+    private final LifecycleMetrics lifecycleMetrics;
 
     /**
      * Creates a new PostgreSQL database instance
      *
      * @param dataBaseRequestDto The database creation request
+     * @param includePassword Include the decrypted password in the response (off by default)
      * @return ResponseEntity with created database details
      */
     @PostMapping
     public ResponseEntity<DatabaseResponseDto> provisionDatabase(
-            @Valid @RequestBody CreateDataBaseRequestDto dataBaseRequestDto) {
+            @Valid @RequestBody CreateDataBaseRequestDto dataBaseRequestDto,
+            @RequestParam(defaultValue = "false") boolean includePassword) {
 
         log.info("Received database creation request: {}", dataBaseRequestDto.getName());
 
-        if (!requestValidationService.validateDbRequest("CREATE", dataBaseRequestDto)) {
+        if (!lifecycleMetrics.timeCheck(LifecycleMetrics.VALIDATION, dataBaseRequestDto.getType(),
+                () -> requestValidationService.validateDbRequest("CREATE", dataBaseRequestDto))) {
             log.warn("Validation failed for database: {}", dataBaseRequestDto.getName());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
-        return databaseProvisionService.provision(dataBaseRequestDto);
+        return databaseProvisionService.provision(dataBaseRequestDto, includePassword);
     }
 
+    /**
+     * Creates several database instances in one request
+     *
+     * Items are validated together and provisioned concurrently; the response
+     * carries an accepted/rejected result for every item.
+     *
+     * @param batchRequestDto The database creation requests
+     * @param includePassword Include decrypted passwords in the response (off by default)
+     * @return ResponseEntity with a result per requested database
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchProvisionResponseDto> provisionDatabases(
+            @Valid @RequestBody BatchCreateDatabaseRequestDto batchRequestDto,
+            @RequestParam(defaultValue = "false") boolean includePassword) {
+
+        log.info("Received batch database creation request for {} database(s)", batchRequestDto.getDatabases().size());
+
+        Map<Integer, String> validationErrors = lifecycleMetrics.time(LifecycleMetrics.VALIDATION, null,
+                () -> requestValidationService.validateBatchCreateRequest(batchRequestDto.getDatabases()));
+
+        return databaseProvisionService.provisionBatch(batchRequestDto.getDatabases(), validationErrors, includePassword);
+    }
+
+    /**
+     * Lists database instances
+     *
+     * Supports filtering by status, type and name prefix, server-side sorting and offset
+     * paging (page/size). Paging details are returned in the X-Total-Count, X-Page-Number
+     * and X-Page-Size headers.
+     *
+     * For delta sync pass the X-Sync-Watermark of a previous response as changedSince; only
+     * changed rows and tombstones for destroyed ones are returned. If-None-Match with the ETag
+     * of a previous response yields 304 when nothing has changed.
+     *
+     * @param listRequest Filters, sort, paging and watermark from the query string
+     * @param ifNoneMatch ETag of the client's cached copy, if any
+     * @return ResponseEntity with the matching databases
+     */
     @GetMapping
-    public ResponseEntity<List<DatabaseResponseDto>> resyncResources(){
-        log.info("Resyncing and Refetching All Database instances");
-        return databaseDetailsService.resync();
+    public ResponseEntity<List<DatabaseResponseDto>> resyncResources(
+            @Valid DatabaseListRequestDto listRequest,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Resyncing and Refetching Database instances");
+        return databaseDetailsService.resync(listRequest, ifNoneMatch);
+    }
+
+    /**
+     * Streams database status changes as Server-Sent Events
+     *
+     * Each "status" event carries the id, name, type, new status and updatedAt of one database.
+     * Browsers reconnect automatically and send Last-Event-ID, which replays missed events;
+     * a "resync" event means the gap was too large and the list should be reloaded.
+     *
+     * @param lastEventId Id of the last event the client received, if reconnecting
+     * @return SSE stream of status events
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatusEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Opening database status event stream (Last-Event-ID: {})", lastEventId);
+        return databaseEventStreamService.subscribe(lastEventId);
     }
 
 
@@ -70,12 +142,14 @@ public class DatabaseController {
      *
      * @param name The current name of the database to update (from path)
      * @param updateRequestDto The update request containing newName and/or port
+     * @param includePassword Include the decrypted password in the response (off by default)
      * @return ResponseEntity with updated database details
      */
     @PutMapping("/{name}")
     public ResponseEntity<DatabaseResponseDto> updateDatabase(
             @PathVariable String name,
-            @Valid @RequestBody UpdateDatabaseRequestDto updateRequestDto) {
+            @Valid @RequestBody UpdateDatabaseRequestDto updateRequestDto,
+            @RequestParam(defaultValue = "false") boolean includePassword) {
 
         log.info("Received update request for database: {} (newName: {}, port: {})",
                 name, updateRequestDto.getNewName(), updateRequestDto.getPort());
@@ -86,12 +160,13 @@ public class DatabaseController {
         }
 
         // Validate the update request
-        if (!requestValidationService.validateUpdateRequest(updateRequestDto)) {
+        if (!lifecycleMetrics.timeCheck(LifecycleMetrics.VALIDATION, null,
+                () -> requestValidationService.validateUpdateRequest(updateRequestDto))) {
             log.warn("Validation failed for database update: {}", name);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
-        return databaseUpdateService.update(updateRequestDto);
+        return databaseUpdateService.update(updateRequestDto, includePassword);
     }
 
     /**
@@ -110,23 +185,41 @@ public class DatabaseController {
      * Stops a running database container
      *
      * @param id The ID of the database to stop
+     * @param includePassword Include the decrypted password in the response (off by default)
      * @return ResponseEntity with updated status
      */
     @PostMapping("/{id}/stop")
-    public ResponseEntity<DatabaseResponseDto> stopDatabase(@PathVariable Long id) {
+    public ResponseEntity<DatabaseResponseDto> stopDatabase(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includePassword) {
         log.info("Received database stop request for ID: {}", id);
-        return databaseControlService.stopDatabase(id);
+        return databaseControlService.stopDatabase(id, includePassword);
     }
 
     /**
      * Starts a stopped database container
      *
      * @param id The ID of the database to start
+     * @param includePassword Include the decrypted password in the response (off by default)
      * @return ResponseEntity with updated status
      */
     @PostMapping("/{id}/start")
-    public ResponseEntity<DatabaseResponseDto> startDatabase(@PathVariable Long id) {
+    public ResponseEntity<DatabaseResponseDto> startDatabase(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean includePassword) {
         log.info("Received database start request for ID: {}", id);
-        return databaseControlService.startDatabase(id);
+        return databaseControlService.startDatabase(id, includePassword);
+    }
+
+    /**
+     * Returns the connection credentials (including the password) of a database
+     *
+     * @param id The ID of the database
+     * @return ResponseEntity with the credentials
+     */
+    @GetMapping("/{id}/credentials")
+    public ResponseEntity<DatabaseCredentialsDto> getCredentials(@PathVariable Long id) {
+        log.info("Received credentials request for ID: {}", id);
+        return databaseDetailsService.getCredentials(id);
     }
 }
@@ -0,0 +1,46 @@
+package wbos.backend.dto.operation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a provision or update, as returned by GET /operations/{id}
+ *
+ * version increases with every change; pass it back as ?version= to wait for the next one.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OperationDto {
+
+    private String id;
+    private String operation;
+    private Long databaseId;
+    private String databaseName;
+    private String phase;
+    private int progress;
+    private long version;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+    private List<PhaseDto> phases;
+
+    /**
+     * A phase the operation entered, in order
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PhaseDto {
+        private String phase;
+        private LocalDateTime startedAt;
+    }
+}
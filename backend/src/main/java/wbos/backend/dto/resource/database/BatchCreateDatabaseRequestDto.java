@@ -0,0 +1,26 @@
+package wbos.backend.dto.resource.database;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating several databases in one request
+ *
+ * Items are validated together; invalid items are reported individually
+ * without preventing the valid ones from being provisioned.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateDatabaseRequestDto {
+
+    @NotEmpty(message = "At least one database is required")
+    private List<@Valid CreateDataBaseRequestDto> databases;
+}
@@ -0,0 +1,22 @@
+package wbos.backend.dto.resource.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a single item in a batch create request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProvisionItemDto {
+
+    private int index;
+    private String name;
+    private boolean accepted;
+    private String error;
+    private DatabaseResponseDto database;
+}
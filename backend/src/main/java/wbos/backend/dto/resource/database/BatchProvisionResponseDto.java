@@ -0,0 +1,20 @@
+package wbos.backend.dto.resource.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchProvisionResponseDto {
+
+    private int requested;
+    private int accepted;
+    private int rejected;
+    private List<BatchProvisionItemDto> results;
+}
@@ -2,8 +2,15 @@ package wbos.backend.dto.resource.database;
 
 import java.util.List;
 
-public record ConsoleLogsResponse(List<String> lines, int total) {
+/**
+ * Log lines returned by the console, with how many lines were read and matched to produce them
+ */
+public record ConsoleLogsResponse(List<String> lines, int total, long scanned, long matched) {
     public static ConsoleLogsResponse of(List<String> lines) {
-        return new ConsoleLogsResponse(lines, lines.size());
+        return new ConsoleLogsResponse(lines, lines.size(), lines.size(), lines.size());
+    }
+
+    public static ConsoleLogsResponse of(List<String> lines, long scanned, long matched) {
+        return new ConsoleLogsResponse(lines, lines.size(), scanned, matched);
     }
 }
@@ -0,0 +1,27 @@
+package wbos.backend.dto.resource.database;
+
+import wbos.backend.records.ContainerStatsPoint;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sampled resource usage of a database container, one series per retention tier
+ *
+ * @param memoryLimitBytes Limit Docker reported with the last sample; the host's memory when unlimited
+ * @param sampledAt Time of the last sample, null if none was taken yet
+ */
+public record ContainerStatsResponse(
+        Long databaseId,
+        String name,
+        Integer memoryMb,
+        Long memoryLimitBytes,
+        Instant sampledAt,
+        List<Tier> tiers
+) {
+
+    /**
+     * @param resolution ISO-8601 duration covered by each point
+     */
+    public record Tier(String resolution, List<ContainerStatsPoint> points) {}
+}
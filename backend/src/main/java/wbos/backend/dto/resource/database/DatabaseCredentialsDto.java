@@ -0,0 +1,27 @@
+package wbos.backend.dto.resource.database;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import wbos.backend.enums.DatabaseType;
+
+/**
+ * Connection credentials of a database, returned by GET /databases/{id}/credentials
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatabaseCredentialsDto {
+
+    private Long id;
+    private String name;
+
+    /** Database inside the engine to connect to; stays the original name after a rename */
+    private String databaseName;
+    private DatabaseType type;
+    private Integer port;
+    private String connectionString;
+    private String password;
+}
@@ -0,0 +1,51 @@
+package wbos.backend.dto.resource.database;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Query parameters for listing databases
+ *
+ * Without page or size the full filtered list is returned. Sort is "field" or
+ * "field,asc|desc" on name, type, status, port, createdAt or updatedAt.
+ * With changedSince only rows updated at or after that time are returned,
+ * and destroyed rows come back as tombstones.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatabaseListRequestDto {
+
+    /** Statuses to include; defaults to every status except DESTROYED */
+    private List<DatabaseStatus> status;
+
+    /** Database types to include */
+    private List<DatabaseType> type;
+
+    /** Name prefix */
+    private String name;
+
+    @Min(value = 0, message = "Page must be 0 or greater")
+    private Integer page;
+
+    @Min(value = 1, message = "Page size must be at least 1")
+    @Max(value = 500, message = "Page size cannot exceed 500")
+    private Integer size;
+
+    private String sort;
+
+    /** Delta sync watermark, as returned in X-Sync-Watermark by a previous list call */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime changedSince;
+}
@@ -16,6 +16,9 @@ public class DatabaseResponseDto {
 
     private Long id;
     private String name;
+
+    /** Database inside the engine; stays the original name after a rename */
+    private String databaseName;
     private DatabaseType type;
     private String version;
     private Integer memoryMb;
@@ -27,4 +30,7 @@ public class DatabaseResponseDto {
     private String terraformStatePath;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    /** Operation to follow through GET /operations/{id}; only set on responses that start one */
+    private String operationId;
 }
@@ -4,20 +4,22 @@ package wbos.backend.enums;
  * Supported database types
  */
 public enum DatabaseType {
-    POSTGRESQL("PostgreSQL", "postgres:15-alpine", 5432),
-    MYSQL("MySQL", "mysql:8.0", 3306),
-    MONGODB("MongoDB", "mongo:7.0", 27017),
-    REDIS("Redis", "redis:7.2-alpine", 6379),
-    MARIADB("MariaDB", "mariadb:11.1", 3306);
+    POSTGRESQL("PostgreSQL", "postgres:15-alpine", 5432, "/var/lib/postgresql/data"),
+    MYSQL("MySQL", "mysql:8.0", 3306, "/var/lib/mysql"),
+    MONGODB("MongoDB", "mongo:7.0", 27017, "/data/db"),
+    REDIS("Redis", "redis:7.2-alpine", 6379, "/data"),
+    MARIADB("MariaDB", "mariadb:11.1", 3306, "/var/lib/mysql");
 
     private final String displayName;
     private final String dockerImage;
     private final int defaultInternalPort;
+    private final String dataPath;
 
-    DatabaseType(String displayName, String dockerImage, int defaultInternalPort) {
+    DatabaseType(String displayName, String dockerImage, int defaultInternalPort, String dataPath) {
         this.displayName = displayName;
         this.dockerImage = dockerImage;
         this.defaultInternalPort = defaultInternalPort;
+        this.dataPath = dataPath;
     }
 
     public String getDisplayName() {
@@ -31,4 +33,11 @@ public enum DatabaseType {
     public int getDefaultInternalPort() {
         return defaultInternalPort;
     }
+
+    /**
+     * Directory inside the container that holds the data, mounted from the data volume
+     */
+    public String getDataPath() {
+        return dataPath;
+    }
 }
@@ -0,0 +1,11 @@
+package wbos.backend.enums;
+
+/**
+ * Kinds of background lifecycle work, each with its own concurrency limit
+ */
+public enum LifecycleOperation {
+    PROVISION,
+    UPDATE,
+    DESTROY,
+    CONTROL
+}
@@ -0,0 +1,28 @@
+package wbos.backend.enums;
+
+/**
+ * Phases a tracked provision or update passes through, with the progress reported on entering each
+ */
+public enum OperationPhase {
+    QUEUED(0),
+    PULLING_IMAGE(10),
+    INITIALISING(25),
+    APPLYING(45),
+    WAITING_FOR_READINESS(80),
+    SUCCEEDED(100),
+    FAILED(100);
+
+    private final int progress;
+
+    OperationPhase(int progress) {
+        this.progress = progress;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public boolean isFinal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,22 @@
+package wbos.backend.enums;
+
+/**
+ * Ways an update is applied to a database container, from cheapest to most expensive
+ */
+public enum UpdateStrategy {
+    /** Memory limit changed on the existing container through the Docker update API */
+    LIVE_RESIZE,
+    /** Container renamed in place, nothing else changes */
+    RENAME,
+    /** Container replaced, its data volume is kept and mounted into the new one */
+    RECREATE_CONTAINER,
+    /** Container and everything the engine recorded for it replaced, for containers without a data volume */
+    FULL_RECREATE;
+
+    /**
+     * Phase name the strategy is timed under in lifecycle.phase
+     */
+    public String phase() {
+        return "update_" + name().toLowerCase();
+    }
+}
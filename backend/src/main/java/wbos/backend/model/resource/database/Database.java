@@ -13,7 +13,11 @@ import wbos.backend.enums.DatabaseType;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "databases")
+@Table(name = "databases", indexes = {
+        @Index(name = "idx_databases_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_databases_updated_at", columnList = "updated_at")
+})
+@EntityListeners(DatabaseStatusListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -56,6 +60,18 @@ public class Database {
     @Column
     private Integer port;
 
+    /** Database created inside the engine; null for rows from before renames kept it apart from name */
+    @Column(name = "database_name")
+    private String databaseName;
+
+    /** Named Docker volume holding the data; null for containers created without one */
+    @Column(name = "data_volume")
+    private String dataVolume;
+
+    /** SHA-256 of the configuration the container was last created from */
+    @Column(name = "config_hash", length = 64)
+    private String configHash;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -63,4 +79,12 @@ public class Database {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Database created inside the engine; rows without a stored databaseName were always
+     * recreated under their current name
+     */
+    public String engineDatabaseName() {
+        return databaseName != null ? databaseName : name;
+    }
 }
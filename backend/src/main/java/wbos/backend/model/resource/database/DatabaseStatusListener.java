@@ -0,0 +1,30 @@
+package wbos.backend.model.resource.database;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import wbos.backend.records.DatabaseStatusEvent;
+
+/**
+ * Publishes a DatabaseStatusEvent whenever a Database row is inserted or updated through JPA
+ *
+ * Instantiated by Hibernate through Spring's bean container, so the publisher is injected.
+ */
+@RequiredArgsConstructor
+public class DatabaseStatusListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(Database database) {
+        eventPublisher.publishEvent(new DatabaseStatusEvent(
+                database.getId(),
+                database.getName(),
+                database.getType(),
+                database.getStatus(),
+                database.getUpdatedAt()
+        ));
+    }
+}
@@ -0,0 +1,21 @@
+package wbos.backend.records;
+
+import wbos.backend.enums.DatabaseType;
+
+/**
+ * Desired configuration of a database container
+ *
+ * name is the container name. databaseName is the database created inside the engine; it is
+ * fixed when the data is initialised and stays the same when the container is renamed.
+ * dataVolume is the named volume holding the data, null for containers created without one.
+ */
+public record ContainerSpec(
+        String name,
+        DatabaseType type,
+        Integer port,
+        String password,
+        String version,
+        Integer memoryMb,
+        String databaseName,
+        String dataVolume
+) {}
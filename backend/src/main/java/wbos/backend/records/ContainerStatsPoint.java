@@ -0,0 +1,30 @@
+package wbos.backend.records;
+
+import java.time.Instant;
+
+/**
+ * Resource usage of a container over one interval of a statistics tier
+ *
+ * @param time Start of the interval
+ * @param samples Number of samples aggregated into the point
+ * @param cpuPercent Average CPU usage, 100 per fully used core
+ * @param cpuPercentMax Highest sampled CPU usage
+ * @param memoryBytes Average memory usage
+ * @param memoryBytesMax Highest sampled memory usage
+ * @param networkRxBytesPerSecond Average receive rate over all networks
+ * @param networkTxBytesPerSecond Average transmit rate over all networks
+ * @param blockReadBytesPerSecond Average block device read rate
+ * @param blockWriteBytesPerSecond Average block device write rate
+ */
+public record ContainerStatsPoint(
+        Instant time,
+        int samples,
+        double cpuPercent,
+        double cpuPercentMax,
+        long memoryBytes,
+        long memoryBytesMax,
+        double networkRxBytesPerSecond,
+        double networkTxBytesPerSecond,
+        double blockReadBytesPerSecond,
+        double blockWriteBytesPerSecond
+) {}
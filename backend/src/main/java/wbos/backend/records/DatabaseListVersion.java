@@ -0,0 +1,11 @@
+package wbos.backend.records;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest update time of the databases table, used to derive list ETags
+ */
+public record DatabaseListVersion(
+        long count,
+        LocalDateTime lastUpdatedAt
+) {}
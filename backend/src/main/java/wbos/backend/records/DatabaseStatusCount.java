@@ -0,0 +1,11 @@
+package wbos.backend.records;
+
+import wbos.backend.enums.DatabaseStatus;
+
+/**
+ * Number of databases in one status, used for the databases.status gauges
+ */
+public record DatabaseStatusCount(
+        DatabaseStatus status,
+        long count
+) {}
@@ -0,0 +1,17 @@
+package wbos.backend.records;
+
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact status change pushed to clients on GET /databases/events
+ */
+public record DatabaseStatusEvent(
+        Long id,
+        String name,
+        DatabaseType type,
+        DatabaseStatus status,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,20 @@
+package wbos.backend.records;
+
+import java.time.Duration;
+
+/**
+ * How long Terraform took to apply or refresh one resource, read from its -json event stream
+ *
+ * @param address Resource address, e.g. docker_container.database
+ * @param resourceType Resource type, e.g. docker_container
+ * @param action create, update, replace, delete or refresh
+ * @param elapsed Time between the start and completion events
+ * @param success false if the resource errored
+ */
+public record TerraformResourceTiming(
+        String address,
+        String resourceType,
+        String action,
+        Duration elapsed,
+        boolean success
+) {}
@@ -0,0 +1,72 @@
+package wbos.backend.repository.resource.database;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import wbos.backend.model.resource.database.Database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC-level writes for bulk operations
+ *
+ * Database ids use IDENTITY generation, which makes Hibernate insert rows one statement at a time;
+ * batch creation inserts through a single JDBC batch instead and reads the generated ids back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DatabaseBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO databases (name, type, status, port, version, memory_mb, terraform_state_path, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts all databases in one JDBC batch
+     *
+     * @param databases New database rows (ids are ignored)
+     * @return Generated ids, in the same order as the input
+     */
+    public List<Long> insertAll(List<Database> databases) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Database database = databases.get(i);
+                        ps.setString(1, database.getName());
+                        ps.setString(2, database.getType().name());
+                        ps.setString(3, database.getStatus().name());
+                        ps.setObject(4, database.getPort(), Types.INTEGER);
+                        ps.setString(5, database.getVersion());
+                        ps.setObject(6, database.getMemoryMb(), Types.INTEGER);
+                        ps.setString(7, database.getTerraformStatePath());
+                        ps.setTimestamp(8, now);
+                        ps.setTimestamp(9, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return databases.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+}
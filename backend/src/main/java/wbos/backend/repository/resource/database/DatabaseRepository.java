@@ -1,23 +1,43 @@
 package wbos.backend.repository.resource.database;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import wbos.backend.enums.DatabaseStatus;
 import wbos.backend.model.resource.database.Database;
+import wbos.backend.records.DatabaseListVersion;
+import wbos.backend.records.DatabaseStatusCount;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DatabaseRepository extends JpaRepository<Database, Long> {
+public interface DatabaseRepository extends JpaRepository<Database, Long>, JpaSpecificationExecutor<Database> {
 
     Optional<Database> findByName(String name);
 
+    List<Database> findByNameIn(Collection<String> names);
+
     boolean existsByName(String name);
 
+    List<Database> findByStatus(DatabaseStatus status);
+
     @Query("SELECT COALESCE(MAX(d.port), 5432) FROM Database d")
     Integer findMaxPort();
 
+    /**
+     * Ports held by every database that is not destroyed, used to seed the port allocator
+     */
+    @Query("SELECT d.port FROM Database d WHERE d.port IS NOT NULL AND d.status <> 'DESTROYED'")
+    List<Integer> findAllocatedPorts();
+
     /**
      * Check if a port is already in use by a database in PROVISIONING, RUNNING, UPDATING, STARTING, or STOPPING state
      */
@@ -25,14 +45,64 @@ public interface DatabaseRepository extends JpaRepository<Database, Long> {
            "WHERE d.port = :port AND d.status IN ('PROVISIONING', 'RUNNING', 'UPDATING', 'STARTING', 'STOPPING')")
     boolean isPortInUse(@Param("port") Integer port);
 
+    /**
+     * Return which of the given ports are in use by a database in PROVISIONING, RUNNING, UPDATING, STARTING, or STOPPING state
+     */
+    @Query("SELECT d.port FROM Database d " +
+           "WHERE d.port IN :ports AND d.status IN ('PROVISIONING', 'RUNNING', 'UPDATING', 'STARTING', 'STOPPING')")
+    List<Integer> findPortsInUse(@Param("ports") Collection<Integer> ports);
+
     /**
      * Find database by port
      */
     Optional<Database> findByPort(Integer port);
 
+    /**
+     * Row count and latest updatedAt over all rows; changes whenever any row is inserted or updated
+     */
+    @Query("SELECT new wbos.backend.records.DatabaseListVersion(COUNT(d), MAX(d.updatedAt)) FROM Database d")
+    DatabaseListVersion findListVersion();
+
+    /**
+     * Number of databases per status, one grouped query for all status gauges
+     */
+    @Query("SELECT new wbos.backend.records.DatabaseStatusCount(d.status, COUNT(d)) FROM Database d GROUP BY d.status")
+    List<DatabaseStatusCount> countByStatus();
+
+    /**
+     * Databases whose password is still stored in the legacy unversioned format, in id order
+     */
+    @Query("SELECT d FROM Database d WHERE d.id > :afterId AND d.encryptedPassword IS NOT NULL " +
+           "AND d.encryptedPassword NOT LIKE 'v1:%' ORDER BY d.id")
+    List<Database> findLegacyEncryptedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Replaces an encrypted password only if it still has the expected value
+     *
+     * @return 1 if the row was updated, 0 if it changed in the meantime
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Database d SET d.encryptedPassword = :replacement WHERE d.id = :id AND d.encryptedPassword = :expected")
+    int replaceEncryptedPassword(@Param("id") Long id, @Param("expected") String expected,
+                                 @Param("replacement") String replacement);
+
+    /**
+     * Records a memory limit applied to the live container, leaving the status and other columns untouched
+     *
+     * Clears the persistence context so a following read returns the new limit, not a cached entity.
+     *
+     * @return 1 if the row was updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Database d SET d.memoryMb = :memoryMb, d.configHash = :configHash, d.updatedAt = :updatedAt WHERE d.id = :id")
+    int updateMemoryLimit(@Param("id") Long id, @Param("memoryMb") Integer memoryMb,
+                          @Param("configHash") String configHash, @Param("updatedAt") LocalDateTime updatedAt);
+
     /**
      * Find all databases that are not destroyed
      */
     @Query("SELECT d FROM Database d WHERE d.status != 'DESTROYED' ORDER BY d.createdAt DESC")
-    java.util.List<Database> findAllActiveDatabase();
+    List<Database> findAllActiveDatabase();
 }
@@ -0,0 +1,58 @@
+package wbos.backend.repository.resource.database;
+
+import org.springframework.data.jpa.domain.Specification;
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.model.resource.database.Database;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Query building blocks for filtering databases
+ */
+public final class DatabaseSpecifications {
+
+    private DatabaseSpecifications() {
+    }
+
+    /**
+     * Rows in one of the given statuses, or every row except DESTROYED when none are given
+     */
+    public static Specification<Database> statusIn(Collection<DatabaseStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return (root, query, cb) -> cb.notEqual(root.get("status"), DatabaseStatus.DESTROYED);
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    /**
+     * Rows changed at or after the watermark: either in one of the given statuses (every status
+     * when none are given) or DESTROYED, so removals are reported as tombstones
+     */
+    public static Specification<Database> changedSince(LocalDateTime watermark, Collection<DatabaseStatus> statuses) {
+        Specification<Database> changed = (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("updatedAt"), watermark);
+        if (statuses == null || statuses.isEmpty()) {
+            return changed;
+        }
+        Specification<Database> statusOrTombstone = (root, query, cb) -> cb.or(
+                root.get("status").in(statuses),
+                cb.equal(root.get("status"), DatabaseStatus.DESTROYED));
+        return changed.and(statusOrTombstone);
+    }
+
+    public static Specification<Database> typeIn(Collection<DatabaseType> types) {
+        if (types == null || types.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("type").in(types);
+    }
+
+    public static Specification<Database> nameStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("name"), pattern, '\\');
+    }
+}
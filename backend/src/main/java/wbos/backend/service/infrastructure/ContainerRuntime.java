@@ -0,0 +1,44 @@
+package wbos.backend.service.infrastructure;
+
+/**
+ * Starts and stops existing database containers
+ *
+ * Used by the start/stop endpoints and for changes applied to an existing container (memory
+ * limit, name); creating and removing containers is the job of the ProvisioningEngine.
+ */
+public interface ContainerRuntime {
+
+    /**
+     * Starts a stopped container
+     *
+     * @param containerId Container id or name
+     * @return true if the container was started
+     */
+    boolean start(String containerId);
+
+    /**
+     * Stops a running container
+     *
+     * @param containerId Container id or name
+     * @return true if the container was stopped
+     */
+    boolean stop(String containerId);
+
+    /**
+     * Changes the memory limit of a container in place, running or stopped
+     *
+     * @param containerId Container id or name
+     * @param memoryMb New memory limit in MB
+     * @return true if the limit was applied
+     */
+    boolean updateMemory(String containerId, int memoryMb);
+
+    /**
+     * Renames a container, running or stopped, without recreating it
+     *
+     * @param containerId Container id or current name
+     * @param newName New container name
+     * @return true if the container was renamed
+     */
+    boolean rename(String containerId, String newName);
+}
@@ -0,0 +1,251 @@
+package wbos.backend.service.infrastructure;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.BlkioStatEntry;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.StatisticNetworksConfig;
+import com.github.dockerjava.api.model.Statistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wbos.backend.config.DockerClientFactory;
+import wbos.backend.config.StatsProperties;
+import wbos.backend.dto.resource.database.ContainerStatsResponse;
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.model.resource.database.Database;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+import wbos.backend.service.utlis.stats.StatsRingBuffer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Samples CPU, memory, network and block I/O of every RUNNING database container
+ *
+ * Every app.stats.interval one stats snapshot per container is read from the Docker Engine API,
+ * all containers in parallel on virtual threads. CPU usage is taken from the difference Docker
+ * reports against its previous reading; network and block I/O rates from the difference to this
+ * sampler's previous sample, so the first sample after a container (re)starts only primes the
+ * counters. Samples are added to one StatsRingBuffer per app.stats.tiers entry, so history is
+ * bounded per container and coarser tiers reach further back.
+ *
+ * Series live in memory only. They stop growing while a database is not running and are dropped
+ * once their last sample is older than the longest tier reaches.
+ */
+@Service
+@Slf4j
+public class ContainerStatsSampler {
+
+    private final DockerClientFactory dockerClientFactory;
+    private final DatabaseRepository databaseRepository;
+    private final StatsProperties properties;
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+
+    public ContainerStatsSampler(DockerClientFactory dockerClientFactory, DatabaseRepository databaseRepository,
+                                 StatsProperties properties) {
+        this.dockerClientFactory = dockerClientFactory;
+        this.databaseRepository = databaseRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Takes one sample of every RUNNING database and drops series that aged out
+     */
+    @Scheduled(initialDelayString = "${app.stats.interval:5s}", fixedDelayString = "${app.stats.interval:5s}")
+    public void sampleRunning() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        List<Database> running = databaseRepository.findByStatus(DatabaseStatus.RUNNING).stream()
+                .filter(database -> database.getContainerId() != null && !database.getContainerId().isBlank())
+                .toList();
+        if (!running.isEmpty()) {
+            DockerClient docker = dockerClientFactory.getClient();
+            try (ExecutorService samplers = Executors.newVirtualThreadPerTaskExecutor()) {
+                running.forEach(database -> samplers.execute(() -> sample(docker, database)));
+            }
+        }
+
+        long cutoff = System.currentTimeMillis() - series.values().stream()
+                .mapToLong(Series::spanMillis).max().orElse(0);
+        series.values().removeIf(entry -> entry.sampledBefore(cutoff));
+    }
+
+    /**
+     * Returns the retained samples of a database, or empty tiers if it was never sampled
+     *
+     * @param since Only points of intervals starting at or after this instant, or null for all
+     * @param resolution Only the tier with this resolution, or null for all tiers
+     */
+    public ContainerStatsResponse getStats(Database database, Instant since, Duration resolution) {
+        Series entry = series.get(database.getId());
+        long sinceMillis = since != null ? since.toEpochMilli() : Long.MIN_VALUE;
+        long resolutionMillis = resolution != null ? resolution.toMillis() : 0;
+
+        if (entry == null) {
+            List<ContainerStatsResponse.Tier> tiers = properties.getTiers().stream()
+                    .filter(tier -> resolution == null || tier.getResolution().toMillis() == resolutionMillis)
+                    .map(tier -> new ContainerStatsResponse.Tier(tier.getResolution().toString(), List.of()))
+                    .toList();
+            return new ContainerStatsResponse(database.getId(), database.getName(), database.getMemoryMb(),
+                    null, null, tiers);
+        }
+        return entry.snapshot(database, sinceMillis, resolutionMillis);
+    }
+
+    private void sample(DockerClient docker, Database database) {
+        AtomicReference<Statistics> received = new AtomicReference<>();
+        try (ResultCallback.Adapter<Statistics> callback = docker.statsCmd(database.getContainerId())
+                .withNoStream(true)
+                .exec(new ResultCallback.Adapter<>() {
+                    @Override
+                    public void onNext(Statistics statistics) {
+                        received.set(statistics);
+                    }
+                })) {
+            if (!callback.awaitCompletion(properties.getSampleTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                log.debug("Stats of database {} not received within {}", database.getName(), properties.getSampleTimeout());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.debug("Failed to read stats of database {}: {}", database.getName(), e.getMessage());
+            return;
+        }
+
+        Statistics stats = received.get();
+        if (stats == null || stats.getMemoryStats() == null) {
+            return;
+        }
+
+        long rx = 0;
+        long tx = 0;
+        if (stats.getNetworks() != null) {
+            for (StatisticNetworksConfig network : stats.getNetworks().values()) {
+                rx += orZero(network.getRxBytes());
+                tx += orZero(network.getTxBytes());
+            }
+        }
+        long read = 0;
+        long write = 0;
+        if (stats.getBlkioStats() != null && stats.getBlkioStats().getIoServiceBytesRecursive() != null) {
+            for (BlkioStatEntry entry : stats.getBlkioStats().getIoServiceBytesRecursive()) {
+                if ("read".equalsIgnoreCase(entry.getOp())) {
+                    read += orZero(entry.getValue());
+                } else if ("write".equalsIgnoreCase(entry.getOp())) {
+                    write += orZero(entry.getValue());
+                }
+            }
+        }
+
+        series.computeIfAbsent(database.getId(), id -> new Series(properties.getTiers()))
+                .record(database.getContainerId(), System.currentTimeMillis(),
+                        cpuPercent(stats.getCpuStats(), stats.getPreCpuStats()),
+                        orZero(stats.getMemoryStats().getUsage()), orZero(stats.getMemoryStats().getLimit()),
+                        rx, tx, read, write);
+    }
+
+    /**
+     * CPU usage the way docker stats computes it: container time over host time, scaled by online CPUs
+     */
+    private static double cpuPercent(CpuStatsConfig current, CpuStatsConfig previous) {
+        if (current == null || previous == null || current.getCpuUsage() == null || previous.getCpuUsage() == null) {
+            return 0;
+        }
+        long cpuDelta = orZero(current.getCpuUsage().getTotalUsage()) - orZero(previous.getCpuUsage().getTotalUsage());
+        long systemDelta = orZero(current.getSystemCpuUsage()) - orZero(previous.getSystemCpuUsage());
+        if (cpuDelta <= 0 || systemDelta <= 0) {
+            return 0;
+        }
+        long cpus = orZero(current.getOnlineCpus());
+        if (cpus == 0 && current.getCpuUsage().getPercpuUsage() != null) {
+            cpus = current.getCpuUsage().getPercpuUsage().size();
+        }
+        return (double) cpuDelta / systemDelta * Math.max(cpus, 1) * 100.0;
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Tiers and counter state of one database
+     */
+    private static final class Series {
+
+        private final StatsRingBuffer[] tiers;
+
+        private String containerId;
+        private long sampledAt;
+        private long memoryLimit;
+        private long rx;
+        private long tx;
+        private long read;
+        private long write;
+
+        Series(List<StatsProperties.Tier> tierProperties) {
+            this.tiers = tierProperties.stream()
+                    .map(tier -> new StatsRingBuffer(tier.getResolution().toMillis(), tier.getCapacity()))
+                    .toArray(StatsRingBuffer[]::new);
+        }
+
+        synchronized void record(String sampledContainerId, long now, double cpuPercent, long memoryBytes,
+                                 long limitBytes, long rxBytes, long txBytes, long readBytes, long writeBytes) {
+            // A new container or reset counters (restart) cannot be diffed against the previous sample
+            boolean primed = sampledContainerId.equals(containerId) && now > sampledAt
+                    && rxBytes >= rx && txBytes >= tx && readBytes >= read && writeBytes >= write;
+            if (primed) {
+                double seconds = (now - sampledAt) / 1000.0;
+                for (StatsRingBuffer tier : tiers) {
+                    tier.add(now, cpuPercent, memoryBytes, (rxBytes - rx) / seconds, (txBytes - tx) / seconds,
+                            (readBytes - read) / seconds, (writeBytes - write) / seconds);
+                }
+            }
+
+            containerId = sampledContainerId;
+            sampledAt = now;
+            memoryLimit = limitBytes;
+            rx = rxBytes;
+            tx = txBytes;
+            read = readBytes;
+            write = writeBytes;
+        }
+
+        synchronized boolean sampledBefore(long cutoff) {
+            return sampledAt < cutoff;
+        }
+
+        long spanMillis() {
+            long span = 0;
+            for (StatsRingBuffer tier : tiers) {
+                span = Math.max(span, tier.getSpanMillis());
+            }
+            return span;
+        }
+
+        synchronized ContainerStatsResponse snapshot(Database database, long sinceMillis, long resolutionMillis) {
+            List<ContainerStatsResponse.Tier> result = new ArrayList<>(tiers.length);
+            for (StatsRingBuffer tier : tiers) {
+                if (resolutionMillis == 0 || tier.getResolutionMillis() == resolutionMillis) {
+                    result.add(new ContainerStatsResponse.Tier(
+                            Duration.ofMillis(tier.getResolutionMillis()).toString(), tier.toList(sinceMillis)));
+                }
+            }
+            return new ContainerStatsResponse(database.getId(), database.getName(), database.getMemoryMb(),
+                    memoryLimit, Instant.ofEpochMilli(sampledAt), result);
+        }
+    }
+}
@@ -3,14 +3,164 @@ package wbos.backend.service.infrastructure;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import wbos.backend.enums.DatabaseType;
+import wbos.backend.records.ContainerSpec;
+import wbos.backend.service.utlis.terraform.HclTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Provides Terraform configuration templates for different database types
+ *
+ * Every configuration is the shared provider block, a per-type container resource and the shared
+ * outputs. The per-type templates are compiled once into HclTemplates and rendered per call.
  */
 @Component
 @Slf4j
 public class DatabaseConfigProvider {
 
+    public static final String DOCKER_PROVIDER_SOURCE = "kreuzwerker/docker";
+    public static final String DATA_VOLUME_PREFIX = "local-cloud-data-";
+
+    private static final String PROVIDER_REQUIREMENTS = """
+            terraform {
+              required_providers {
+                docker = {
+                  source  = "%s"
+                  version = "~> 3.0"
+                }
+              }
+            }
+            """.formatted(DOCKER_PROVIDER_SOURCE);
+
+    private static final String PROVIDER = """
+
+            provider "docker" {
+              host = "unix:///var/run/docker.sock"
+            }
+
+            """;
+
+    private static final String OUTPUTS = """
+
+            output "connection_string" {
+              value = "${connectionString}"
+            }
+
+            output "container_id" {
+              value = docker_container.database.id
+            }
+            """;
+
+    /**
+     * Container resource per type; ${memory} and ${volume} expand to whole lines, or nothing
+     * without a memory limit or data volume
+     */
+    private static final Map<DatabaseType, String> CONTAINERS = Map.of(
+            DatabaseType.POSTGRESQL, """
+                    resource "docker_container" "database" {
+                      name  = "${name}"
+                      image = "${image}"
+                    ${memory}${volume}
+                      env = [
+                        "POSTGRES_DB=${databaseName}",
+                        "POSTGRES_USER=postgres",
+                        "POSTGRES_PASSWORD=${password}"
+                      ]
+
+                      ports {
+                        internal = 5432
+                        external = ${port}
+                      }
+
+                      restart = "unless-stopped"
+                    }
+                    """,
+            DatabaseType.MYSQL, """
+                    resource "docker_container" "database" {
+                      name  = "${name}"
+                      image = "${image}"
+                    ${memory}${volume}
+                      env = [
+                        "MYSQL_ROOT_PASSWORD=${password}",
+                        "MYSQL_DATABASE=${databaseName}"
+                      ]
+
+                      ports {
+                        internal = 3306
+                        external = ${port}
+                      }
+
+                      restart = "unless-stopped"
+                    }
+                    """,
+            DatabaseType.MONGODB, """
+                    resource "docker_container" "database" {
+                      name  = "${name}"
+                      image = "${image}"
+                    ${memory}${volume}
+                      env = [
+                        "MONGO_INITDB_ROOT_USERNAME=root",
+                        "MONGO_INITDB_ROOT_PASSWORD=${password}",
+                        "MONGO_INITDB_DATABASE=${databaseName}"
+                      ]
+
+                      ports {
+                        internal = 27017
+                        external = ${port}
+                      }
+
+                      restart = "unless-stopped"
+                    }
+                    """,
+            DatabaseType.REDIS, """
+                    resource "docker_container" "database" {
+                      name  = "${name}"
+                      image = "${image}"
+                    ${memory}${volume}
+                      command = ["redis-server", "--requirepass", "${password}"]
+
+                      ports {
+                        internal = 6379
+                        external = ${port}
+                      }
+
+                      restart = "unless-stopped"
+                    }
+                    """,
+            DatabaseType.MARIADB, """
+                    resource "docker_container" "database" {
+                      name  = "${name}"
+                      image = "${image}"
+                    ${memory}${volume}
+                      env = [
+                        "MARIADB_ROOT_PASSWORD=${password}",
+                        "MARIADB_DATABASE=${databaseName}"
+                      ]
+
+                      ports {
+                        internal = 3306
+                        external = ${port}
+                      }
+
+                      restart = "unless-stopped"
+                    }
+                    """);
+
+    /** Complete configuration per type, compiled once */
+    private static final Map<DatabaseType, HclTemplate> TEMPLATES = new EnumMap<>(DatabaseType.class);
+
+    static {
+        CONTAINERS.forEach((type, container) ->
+                TEMPLATES.put(type, HclTemplate.compile(PROVIDER_REQUIREMENTS + PROVIDER + "${volumeResource}" + container + OUTPUTS)));
+    }
+
     /**
      * Generates Terraform configuration for the specified database type
      *
@@ -29,22 +179,103 @@ public class DatabaseConfigProvider {
     }
 
     public String generateTerraformConfig(DatabaseType type, String dbName, Integer port, String password, String version, Integer memoryMb) {
+        return generateTerraformConfig(new ContainerSpec(dbName, type, port, password, version, memoryMb, dbName, null));
+    }
+
+    /**
+     * Generates Terraform configuration for a container spec
+     *
+     * With a data volume the configuration also declares a docker_volume resource, so the data
+     * outlives container replacements and is only removed by terraform destroy.
+     *
+     * @param spec Desired container configuration
+     * @return Terraform HCL configuration string
+     */
+    public String generateTerraformConfig(ContainerSpec spec) {
         log.info("Generating Terraform config for type: {} version: {} memory: {}",
-                type, version != null ? version : "default", memoryMb != null ? memoryMb + "MB" : "unlimited");
+                spec.type(), spec.version() != null ? spec.version() : "default",
+                spec.memoryMb() != null ? spec.memoryMb() + "MB" : "unlimited");
 
-        return switch (type) {
-            case POSTGRESQL -> generatePostgresConfig(dbName, port, password, resolveVersion(type, version), memoryMb);
-            case MYSQL      -> generateMySQLConfig(dbName, port, password, resolveVersion(type, version), memoryMb);
-            case MONGODB    -> generateMongoDBConfig(dbName, port, password, resolveVersion(type, version), memoryMb);
-            case REDIS      -> generateRedisConfig(dbName, port, password, resolveVersion(type, version), memoryMb);
-            case MARIADB    -> generateMariaDBConfig(dbName, port, password, resolveVersion(type, version), memoryMb);
-        };
+        return render(spec);
+    }
+
+    /**
+     * Content hash of the configuration generateTerraformConfig renders for a spec
+     *
+     * Stored on the database row, so an update that would render the same configuration
+     * can skip recreating the container.
+     *
+     * @return Hex-encoded SHA-256 of the rendered configuration
+     */
+    public String configHash(ContainerSpec spec) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(render(spec).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Name of the data volume of a database, derived from its id so it stays unique across renames
+     *
+     * @param databaseId Database row id
+     * @return Docker volume name
+     */
+    public String dataVolumeName(Long databaseId) {
+        return DATA_VOLUME_PREFIX + databaseId;
+    }
+
+    /**
+     * Generates the provider requirements block shared by every database configuration.
+     * Used on its own to warm the provider plugin cache without declaring any resources.
+     *
+     * @return Terraform HCL block declaring the Docker provider
+     */
+    public String generateProviderRequirements() {
+        return PROVIDER_REQUIREMENTS;
+    }
+
+    private String render(ContainerSpec spec) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", spec.name());
+        values.put("databaseName", spec.databaseName());
+        values.put("image", resolveImage(spec.type(), spec.version()));
+        values.put("memory", memoryLine(spec.memoryMb()));
+        values.put("volume", volumeBlock(spec.type(), spec.dataVolume()));
+        values.put("volumeResource", volumeResource(spec.dataVolume()));
+        values.put("password", spec.password());
+        values.put("port", spec.port());
+        values.put("connectionString",
+                generateConnectionString(spec.type(), spec.databaseName(), spec.port(), spec.password()));
+        return TEMPLATES.get(spec.type()).render(values);
+    }
+
+    /** Mounts the data volume at the type's data directory, or an empty string without a volume. */
+    private String volumeBlock(DatabaseType type, String dataVolume) {
+        if (dataVolume == null) {
+            return "";
+        }
+        return "  volumes {\n"
+                + "    volume_name    = docker_volume.data.name\n"
+                + "    container_path = \"" + type.getDataPath() + "\"\n"
+                + "  }\n";
+    }
+
+    private String volumeResource(String dataVolume) {
+        if (dataVolume == null) {
+            return "";
+        }
+        return "resource \"docker_volume\" \"data\" {\n"
+                + "  name = \"" + dataVolume + "\"\n"
+                + "}\n\n";
     }
 
     /** Returns a single HCL line for memory limit, or an empty string when there is no limit. */
     private String memoryLine(Integer memoryMb) {
         if (memoryMb != null && memoryMb > 0) {
-            return String.format("  memory = %d%n", memoryMb);
+            return "  memory = " + memoryMb + "\n";
         }
         return "";
     }
@@ -81,6 +312,57 @@ public class DatabaseConfigProvider {
         };
     }
 
+    /**
+     * Resolves the Docker image reference used for the specified database type and version
+     * Mirrors the image attribute rendered into the Terraform configuration
+     *
+     * @param type Database type
+     * @param version Image version tag (null for the type default)
+     * @return Image reference, e.g. postgres:15
+     */
+    public String resolveImage(DatabaseType type, String version) {
+        String resolved = resolveVersion(type, version);
+        return switch (type) {
+            case POSTGRESQL -> "postgres:" + resolved;
+            case MYSQL      -> "mysql:" + resolved;
+            case MONGODB    -> "mongo:" + resolved;
+            case REDIS      -> "redis:" + resolved + "-alpine";
+            case MARIADB    -> "mariadb:" + resolved;
+        };
+    }
+
+    /**
+     * Environment variables for a database container, matching the env block of the Terraform configuration
+     *
+     * @param type Database type
+     * @param dbName Database name
+     * @param password Database password
+     * @return Container environment in KEY=value form
+     */
+    public List<String> containerEnv(DatabaseType type, String dbName, String password) {
+        return switch (type) {
+            case POSTGRESQL -> List.of("POSTGRES_DB=" + dbName, "POSTGRES_USER=postgres", "POSTGRES_PASSWORD=" + password);
+            case MYSQL      -> List.of("MYSQL_ROOT_PASSWORD=" + password, "MYSQL_DATABASE=" + dbName);
+            case MONGODB    -> List.of("MONGO_INITDB_ROOT_USERNAME=root", "MONGO_INITDB_ROOT_PASSWORD=" + password,
+                    "MONGO_INITDB_DATABASE=" + dbName);
+            case REDIS      -> List.of();
+            case MARIADB    -> List.of("MARIADB_ROOT_PASSWORD=" + password, "MARIADB_DATABASE=" + dbName);
+        };
+    }
+
+    /**
+     * Command override for a database container, or an empty list to use the image default
+     *
+     * @param type Database type
+     * @param password Database password
+     * @return Container command
+     */
+    public List<String> containerCommand(DatabaseType type, String password) {
+        return type == DatabaseType.REDIS
+                ? List.of("redis-server", "--requirepass", password)
+                : List.of();
+    }
+
     /**
      * Gets the default starting port for a database type
      * Used for auto-port assignment
@@ -96,223 +378,4 @@ public class DatabaseConfigProvider {
             case REDIS -> 6379;
         };
     }
-
-    // ==================== PostgreSQL Configuration ====================
-
-    private String generatePostgresConfig(String dbName, Integer port, String password, String version, Integer memoryMb) {
-        return String.format("""
-                terraform {
-                  required_providers {
-                    docker = {
-                      source  = "kreuzwerker/docker"
-                      version = "~> 3.0"
-                    }
-                  }
-                }
-
-                provider "docker" {
-                  host = "unix:///var/run/docker.sock"
-                }
-
-                resource "docker_container" "database" {
-                  name  = "%s"
-                  image = "postgres:%s"
-                %s
-                  env = [
-                    "POSTGRES_DB=%s",
-                    "POSTGRES_USER=postgres",
-                    "POSTGRES_PASSWORD=%s"
-                  ]
-
-                  ports {
-                    internal = 5432
-                    external = %d
-                  }
-
-                  restart = "unless-stopped"
-                }
-
-                output "connection_string" {
-                  value = "postgresql://postgres:%s@localhost:%d/%s"
-                }
-
-                output "container_id" {
-                  value = docker_container.database.id
-                }
-                """, dbName, version, memoryLine(memoryMb), dbName, password, port, password, port, dbName);
-    }
-
-    // ==================== MySQL Configuration ====================
-
-    private String generateMySQLConfig(String dbName, Integer port, String password, String version, Integer memoryMb) {
-        return String.format("""
-                terraform {
-                  required_providers {
-                    docker = {
-                      source  = "kreuzwerker/docker"
-                      version = "~> 3.0"
-                    }
-                  }
-                }
-
-                provider "docker" {
-                  host = "unix:///var/run/docker.sock"
-                }
-
-                resource "docker_container" "database" {
-                  name  = "%s"
-                  image = "mysql:%s"
-                %s
-                  env = [
-                    "MYSQL_ROOT_PASSWORD=%s",
-                    "MYSQL_DATABASE=%s"
-                  ]
-
-                  ports {
-                    internal = 3306
-                    external = %d
-                  }
-
-                  restart = "unless-stopped"
-                }
-
-                output "connection_string" {
-                  value = "mysql://root:%s@localhost:%d/%s"
-                }
-
-                output "container_id" {
-                  value = docker_container.database.id
-                }
-                """, dbName, version, memoryLine(memoryMb), password, dbName, port, password, port, dbName);
-    }
-
-    // ==================== MongoDB Configuration ====================
-
-    private String generateMongoDBConfig(String dbName, Integer port, String password, String version, Integer memoryMb) {
-        return String.format("""
-                terraform {
-                  required_providers {
-                    docker = {
-                      source  = "kreuzwerker/docker"
-                      version = "~> 3.0"
-                    }
-                  }
-                }
-
-                provider "docker" {
-                  host = "unix:///var/run/docker.sock"
-                }
-
-                resource "docker_container" "database" {
-                  name  = "%s"
-                  image = "mongo:%s"
-                %s
-                  env = [
-                    "MONGO_INITDB_ROOT_USERNAME=root",
-                    "MONGO_INITDB_ROOT_PASSWORD=%s",
-                    "MONGO_INITDB_DATABASE=%s"
-                  ]
-
-                  ports {
-                    internal = 27017
-                    external = %d
-                  }
-
-                  restart = "unless-stopped"
-                }
-
-                output "connection_string" {
-                  value = "mongodb://root:%s@localhost:%d/%s?authSource=admin"
-                }
-
-                output "container_id" {
-                  value = docker_container.database.id
-                }
-                """, dbName, version, memoryLine(memoryMb), password, dbName, port, password, port, dbName);
-    }
-
-    // ==================== Redis Configuration ====================
-
-    private String generateRedisConfig(String dbName, Integer port, String password, String version, Integer memoryMb) {
-        return String.format("""
-                terraform {
-                  required_providers {
-                    docker = {
-                      source  = "kreuzwerker/docker"
-                      version = "~> 3.0"
-                    }
-                  }
-                }
-
-                provider "docker" {
-                  host = "unix:///var/run/docker.sock"
-                }
-
-                resource "docker_container" "database" {
-                  name  = "%s"
-                  image = "redis:%s-alpine"
-                %s
-                  command = ["redis-server", "--requirepass", "%s"]
-
-                  ports {
-                    internal = 6379
-                    external = %d
-                  }
-
-                  restart = "unless-stopped"
-                }
-
-                output "connection_string" {
-                  value = "redis://:%s@localhost:%d"
-                }
-
-                output "container_id" {
-                  value = docker_container.database.id
-                }
-                """, dbName, version, memoryLine(memoryMb), password, port, password, port);
-    }
-
-    // ==================== MariaDB Configuration ====================
-
-    private String generateMariaDBConfig(String dbName, Integer port, String password, String version, Integer memoryMb) {
-        return String.format("""
-                terraform {
-                  required_providers {
-                    docker = {
-                      source  = "kreuzwerker/docker"
-                      version = "~> 3.0"
-                    }
-                  }
-                }
-
-                provider "docker" {
-                  host = "unix:///var/run/docker.sock"
-                }
-
-                resource "docker_container" "database" {
-                  name  = "%s"
-                  image = "mariadb:%s"
-                %s
-                  env = [
-                    "MARIADB_ROOT_PASSWORD=%s",
-                    "MARIADB_DATABASE=%s"
-                  ]
-
-                  ports {
-                    internal = 3306
-                    external = %d
-                  }
-
-                  restart = "unless-stopped"
-                }
-
-                output "connection_string" {
-                  value = "mysql://root:%s@localhost:%d/%s"
-                }
-
-                output "container_id" {
-                  value = docker_container.database.id
-                }
-                """, dbName, version, memoryLine(memoryMb), password, dbName, port, password, port, dbName);
-    }
 }
@@ -0,0 +1,95 @@
+package wbos.backend.service.infrastructure;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import wbos.backend.config.DockerClientFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+/**
+ * Starts and stops containers through the docker CLI
+ *
+ * Memory limits and names are changed through the Docker Engine API (container update and
+ * rename), which apply to the running container without restarting it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DockerCliContainerRuntime implements ContainerRuntime {
+
+    private final DockerClientFactory dockerClientFactory;
+
+    @Override
+    public boolean start(String containerId) {
+        return executeDockerCommand("start", containerId);
+    }
+
+    @Override
+    public boolean stop(String containerId) {
+        return executeDockerCommand("stop", containerId);
+    }
+
+    @Override
+    public boolean updateMemory(String containerId, int memoryMb) {
+        try {
+            // Same swap allowance Docker applies when the limit is set at creation; raising the limit
+            // above the previous swap limit would otherwise be rejected
+            long bytes = memoryMb * 1024L * 1024L;
+            dockerClientFactory.getClient().updateContainerCmd(containerId)
+                    .withMemory(bytes)
+                    .withMemorySwap(bytes * 2)
+                    .exec();
+            log.info("Updated memory limit of container {} to {}MB", containerId, memoryMb);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to update memory limit of container {} to {}MB: {}", containerId, memoryMb, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean rename(String containerId, String newName) {
+        try {
+            dockerClientFactory.getClient().renameContainerCmd(containerId).withName(newName).exec();
+            log.info("Renamed container {} to {}", containerId, newName);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to rename container {} to {}: {}", containerId, newName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Executes a docker command
+     */
+    private boolean executeDockerCommand(String command, String containerId) {
+        try {
+            ProcessBuilder pb = new ProcessBuilder("docker", command, containerId);
+            pb.redirectErrorStream(true);
+
+            log.info("Executing: docker {} {}", command, containerId);
+
+            Process process = pb.start();
+
+            // Read output
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("Docker: {}", line);
+                }
+            }
+
+            int exitCode = process.waitFor();
+            log.info("Docker {} command completed with exit code: {}", command, exitCode);
+
+            return exitCode == 0;
+
+        } catch (Exception e) {
+            log.error("Failed to execute docker {} command", command, e);
+            return false;
+        }
+    }
+}
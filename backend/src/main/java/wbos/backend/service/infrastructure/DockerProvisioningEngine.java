@@ -0,0 +1,282 @@
+package wbos.backend.service.infrastructure;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.CreateContainerCmd;
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.ExposedPort;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.PortBinding;
+import com.github.dockerjava.api.model.Ports;
+import com.github.dockerjava.api.model.RestartPolicy;
+import com.github.dockerjava.api.model.Volume;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import wbos.backend.config.DockerClientFactory;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.OperationPhase;
+import wbos.backend.records.ContainerSpec;
+import wbos.backend.records.TerraformResult;
+import wbos.backend.service.security.PasswordGenerator;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provisioning engine that manages database containers through the Docker Engine API
+ *
+ * Creates the same containers the Terraform templates describe (image, env, port binding,
+ * memory limit, data volume, restart policy) without forking terraform processes or writing HCL.
+ * Enabled with app.provisioning.engine=docker.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.provisioning", name = "engine", havingValue = "docker")
+@RequiredArgsConstructor
+@Slf4j
+public class DockerProvisioningEngine implements ProvisioningEngine {
+
+    private final DockerClientFactory dockerClientFactory;
+    private final DatabaseConfigProvider configProvider;
+    private final PasswordGenerator passwordGenerator;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final OperationTracker operationTracker;
+
+    @Override
+    public TerraformResult provisionDatabase(String dbName, DatabaseType type, Integer port, String version, Integer memoryMb,
+                                             String dataVolume) {
+        log.info("Starting Docker provisioning for database: {} (type: {}, version: {}, memory: {}MB)",
+                dbName, type, version, memoryMb != null ? memoryMb : "unlimited");
+
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            String password = passwordGenerator.generate();
+            String containerId = createAndStartContainer(docker,
+                    new ContainerSpec(dbName, type, port, password, version, memoryMb, dbName, dataVolume));
+
+            log.info("Successfully provisioned {} database: {} (container: {})", type, dbName, containerId);
+            return new TerraformResult(true,
+                    configProvider.generateConnectionString(type, dbName, port, password),
+                    containerId, password, null, null);
+
+        } catch (Exception e) {
+            log.error("Failed to provision {} database: {}", type, dbName, e);
+            return new TerraformResult(false, null, null, null, e.getMessage(), null);
+        }
+    }
+
+    @Override
+    public TerraformResult updateDatabase(String oldName, String newName, DatabaseType type,
+                                          Integer newPort, String existingPassword, Path oldWorkingDir,
+                                          String version, Integer memoryMb) {
+        log.info("Starting Docker update for {} database: {} -> {} (port: {}, memory: {}MB)",
+                type, oldName, newName, newPort, memoryMb != null ? memoryMb : "unlimited");
+
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            removeContainer(docker, oldName);
+
+            String containerId = createAndStartContainer(docker,
+                    new ContainerSpec(newName, type, newPort, existingPassword, version, memoryMb, newName, null));
+
+            log.info("Successfully updated {} database: {} -> {} (container: {})", type, oldName, newName, containerId);
+            return new TerraformResult(true,
+                    configProvider.generateConnectionString(type, newName, newPort, existingPassword),
+                    containerId, existingPassword, null, null);
+
+        } catch (Exception e) {
+            log.error("Failed to update database: {} -> {}", oldName, newName, e);
+            return new TerraformResult(false, null, null, null, e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Renames the container through the Docker Engine API; the container keeps running
+     *
+     * The rename is the last step, so a failed result always leaves the container under its old name.
+     */
+    @Override
+    public TerraformResult renameDatabase(String oldName, ContainerSpec spec, Path workingDir) {
+        log.info("Renaming {} database container: {} -> {}", spec.type(), oldName, spec.name());
+
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            operationTracker.enterPhase(OperationPhase.APPLYING);
+            String containerId = docker.inspectContainerCmd(oldName).exec().getId();
+            lifecycleMetrics.time(LifecycleMetrics.DOCKER_RENAME, spec.type(),
+                    () -> docker.renameContainerCmd(containerId).withName(spec.name()).exec());
+
+            log.info("Successfully renamed database container: {} -> {}", oldName, spec.name());
+            return new TerraformResult(true,
+                    configProvider.generateConnectionString(spec.type(), spec.databaseName(), spec.port(), spec.password()),
+                    containerId, spec.password(), null, null);
+
+        } catch (Exception e) {
+            log.error("Failed to rename database container: {} -> {}", oldName, spec.name(), e);
+            return new TerraformResult(false, null, null, null, e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Replaces the container with one created from the new spec; the data volume is left in place
+     * and mounted into the new container
+     */
+    @Override
+    public TerraformResult reconfigureDatabase(ContainerSpec spec, Path workingDir) {
+        log.info("Recreating {} database container {} (port: {}, memory: {}MB, volume: {})", spec.type(), spec.name(),
+                spec.port(), spec.memoryMb() != null ? spec.memoryMb() : "unlimited", spec.dataVolume());
+
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            operationTracker.enterPhase(OperationPhase.APPLYING);
+            removeContainer(docker, spec.name());
+            String containerId = createAndStartContainer(docker, spec);
+
+            log.info("Successfully recreated database container: {} (container: {})", spec.name(), containerId);
+            return new TerraformResult(true,
+                    configProvider.generateConnectionString(spec.type(), spec.databaseName(), spec.port(), spec.password()),
+                    containerId, spec.password(), null, null);
+
+        } catch (Exception e) {
+            log.error("Failed to recreate database container: {}", spec.name(), e);
+            return new TerraformResult(false, null, null, null, e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Removes the container and then the named volumes it mounted
+     */
+    @Override
+    public boolean destroyDatabase(String dbName, Path workingDir) {
+        log.info("Starting Docker destroy for container: {}", dbName);
+
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            List<String> volumes = namedVolumes(docker, dbName);
+            removeContainer(docker, dbName);
+            for (String volume : volumes) {
+                removeVolume(docker, volume);
+            }
+            log.info("Successfully destroyed database container: {}", dbName);
+            return true;
+
+        } catch (Exception e) {
+            log.error("Failed to destroy database container: {}", dbName, e);
+            return false;
+        }
+    }
+
+    /**
+     * Creates and starts a container equivalent to the docker_container resource in the Terraform templates
+     */
+    private String createAndStartContainer(DockerClient docker, ContainerSpec spec) throws InterruptedException {
+        return createAndStartContainer(docker, spec.name(), spec.databaseName(), spec.type(), spec.port(),
+                spec.password(), spec.version(), spec.memoryMb(), spec.dataVolume(), Map.of());
+    }
+
+    /**
+     * Creates and starts a database container whose name differs from the database it initialises
+     * Used by WarmPoolService for standby containers
+     */
+    String createAndStartContainer(DockerClient docker, String containerName, String dbName, DatabaseType type,
+                                   Integer port, String password, String version, Integer memoryMb,
+                                   String dataVolume, Map<String, String> labels) throws InterruptedException {
+        String image = configProvider.resolveImage(type, version);
+        ensureImage(docker, image, type);
+
+        ExposedPort internalPort = ExposedPort.tcp(type.getDefaultInternalPort());
+        HostConfig hostConfig = HostConfig.newHostConfig()
+                .withPortBindings(new PortBinding(Ports.Binding.bindPort(port), internalPort))
+                .withRestartPolicy(RestartPolicy.unlessStoppedRestart());
+        if (memoryMb != null && memoryMb > 0) {
+            hostConfig.withMemory(memoryMb * 1024L * 1024L);
+        }
+        if (dataVolume != null) {
+            // Docker creates the named volume on first use
+            hostConfig.withBinds(new Bind(dataVolume, new Volume(type.getDataPath())));
+        }
+
+        CreateContainerCmd createCmd = docker.createContainerCmd(image)
+                .withName(containerName)
+                .withEnv(configProvider.containerEnv(type, dbName, password))
+                .withExposedPorts(internalPort)
+                .withLabels(labels)
+                .withHostConfig(hostConfig);
+
+        List<String> command = configProvider.containerCommand(type, password);
+        if (!command.isEmpty()) {
+            createCmd.withCmd(command);
+        }
+
+        operationTracker.enterPhase(OperationPhase.APPLYING);
+        return lifecycleMetrics.time(LifecycleMetrics.DOCKER_CREATE, type, () -> {
+            String containerId = createCmd.exec().getId();
+            docker.startContainerCmd(containerId).exec();
+            return containerId;
+        });
+    }
+
+    /**
+     * Pulls the image unless it is already present locally
+     */
+    private void ensureImage(DockerClient docker, String image, DatabaseType type) throws InterruptedException {
+        try {
+            docker.inspectImageCmd(image).exec();
+        } catch (NotFoundException e) {
+            log.info("Pulling image: {}", image);
+            operationTracker.enterPhase(OperationPhase.PULLING_IMAGE);
+            Timer.Sample sample = lifecycleMetrics.start();
+            String outcome = LifecycleMetrics.ERROR;
+            try {
+                int separator = image.lastIndexOf(':');
+                docker.pullImageCmd(image.substring(0, separator))
+                        .withTag(image.substring(separator + 1))
+                        .exec(new PullImageResultCallback())
+                        .awaitCompletion();
+                outcome = LifecycleMetrics.SUCCESS;
+            } finally {
+                lifecycleMetrics.record(sample, LifecycleMetrics.IMAGE_PULL, type, outcome);
+            }
+        }
+    }
+
+    /**
+     * Names of the named volumes mounted into a container; anonymous volumes are removed with it
+     */
+    private List<String> namedVolumes(DockerClient docker, String containerName) {
+        try {
+            return docker.inspectContainerCmd(containerName).exec().getMounts().stream()
+                    .map(InspectContainerResponse.Mount::getName)
+                    .filter(name -> name != null && name.startsWith(DatabaseConfigProvider.DATA_VOLUME_PREFIX))
+                    .toList();
+        } catch (NotFoundException e) {
+            return List.of();
+        }
+    }
+
+    private void removeVolume(DockerClient docker, String volume) {
+        try {
+            docker.removeVolumeCmd(volume).exec();
+            log.info("Removed volume: {}", volume);
+        } catch (NotFoundException e) {
+            log.warn("Volume {} not found, nothing to remove", volume);
+        }
+    }
+
+    /**
+     * Force-removes a container by name or id; a container that no longer exists counts as removed
+     */
+    void removeContainer(DockerClient docker, String containerName) {
+        try {
+            docker.removeContainerCmd(containerName).withForce(true).exec();
+            log.info("Removed container: {}", containerName);
+        } catch (NotFoundException e) {
+            log.warn("Container {} not found, nothing to remove", containerName);
+        }
+    }
+}
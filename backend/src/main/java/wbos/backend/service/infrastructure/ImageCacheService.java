@@ -0,0 +1,269 @@
+package wbos.backend.service.infrastructure;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.PullImageResultCallback;
+import com.github.dockerjava.api.exception.ConflictException;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Image;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wbos.backend.config.DockerClientFactory;
+import wbos.backend.config.ImageCacheProperties;
+import wbos.backend.enums.DatabaseType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps database images pulled ahead of provisioning and removes the ones nobody uses
+ *
+ * The default image of every type (as resolved for provisioning) and the versions listed under
+ * app.images.versions are pulled in the background at startup and on app.images.refresh-interval,
+ * so the first provision of a version does not pay for the pull. Other images of the database
+ * repositories that were not used for app.images.evict-after are removed; last-used times are
+ * kept in memory and count from startup for images not used since.
+ *
+ * Provisions of an image that is not present locally are logged, counted per image as
+ * provisioning.image.cold and reported together with presence, size and last use under
+ * imageCache at /actuator/info.
+ */
+@Service
+@Slf4j
+public class ImageCacheService implements InfoContributor {
+
+    private final DockerClientFactory dockerClientFactory;
+    private final DatabaseConfigProvider configProvider;
+    private final ImageCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> managedRepositories;
+    private final Map<String, Instant> lastUsed = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> coldProvisions = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Instant startedAt = Instant.now();
+    private volatile Instant lastRefreshAt;
+
+    public ImageCacheService(DockerClientFactory dockerClientFactory, DatabaseConfigProvider configProvider,
+                             ImageCacheProperties properties, MeterRegistry meterRegistry) {
+        this.dockerClientFactory = dockerClientFactory;
+        this.configProvider = configProvider;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.managedRepositories = Arrays.stream(DatabaseType.values())
+                .map(type -> repository(configProvider.resolveImage(type, null)))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        Thread.ofVirtual().name("image-cache-refresh").start(this::refresh);
+    }
+
+    /**
+     * Runs a refresh off the scheduler thread, since pulls can take minutes and would hold up
+     * every other scheduled job (stats sampling, operation cleanup) meanwhile
+     */
+    @Scheduled(initialDelayString = "${app.images.refresh-interval:6h}", fixedDelayString = "${app.images.refresh-interval:6h}")
+    public void refreshPeriodically() {
+        Thread.ofVirtual().name("image-cache-refresh").start(this::refresh);
+    }
+
+    /**
+     * Pulls missing pre-pull images and evicts unused ones; a refresh already running makes this a no-op
+     */
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            if (properties.isPrePull()) {
+                pullMissing(docker);
+            }
+            if (properties.getEvictAfter() != null) {
+                evictUnused(docker);
+            }
+            lastRefreshAt = Instant.now();
+        } catch (Exception e) {
+            log.warn("Image cache refresh failed: {}", e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    /**
+     * Records that a database is about to be created from the image of the given type and version
+     *
+     * @param type Database type
+     * @param version Requested version (null for the type default)
+     * @return false if the image is not present locally and the engine will pull it first (cold path)
+     */
+    public boolean recordUse(DatabaseType type, String version) {
+        String image = configProvider.resolveImage(type, version);
+        lastUsed.put(image, Instant.now());
+
+        try {
+            dockerClientFactory.getClient().inspectImageCmd(image).exec();
+            return true;
+        } catch (NotFoundException e) {
+            coldProvisions.computeIfAbsent(image, k -> new AtomicLong()).incrementAndGet();
+            Counter.builder("provisioning.image.cold")
+                    .description("Provisions that had to pull their image first")
+                    .tag("image", image)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Image {} is not cached - {} provisioning takes the cold path and pulls it first", image, type);
+            return false;
+        } catch (Exception e) {
+            log.debug("Could not check whether image {} is cached: {}", image, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Images kept pulled: the default of every type plus the configured versions
+     */
+    public Set<String> prePulledImages() {
+        Set<String> images = new LinkedHashSet<>();
+        for (DatabaseType type : DatabaseType.values()) {
+            images.add(configProvider.resolveImage(type, null));
+            properties.getVersions().getOrDefault(type, List.of())
+                    .forEach(version -> images.add(configProvider.resolveImage(type, version)));
+        }
+        return images;
+    }
+
+    private void pullMissing(DockerClient docker) {
+        Set<String> present = localImages(docker).keySet();
+        List<String> missing = prePulledImages().stream()
+                .filter(image -> !present.contains(image))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        log.info("Pre-pulling {} image(s): {}", missing.size(), missing);
+        try (ExecutorService pullers = Executors.newVirtualThreadPerTaskExecutor()) {
+            missing.forEach(image -> pullers.execute(() -> pull(docker, image)));
+        }
+    }
+
+    private void pull(DockerClient docker, String image) {
+        long pullStartedAt = System.nanoTime();
+        try {
+            int separator = image.lastIndexOf(':');
+            docker.pullImageCmd(image.substring(0, separator))
+                    .withTag(image.substring(separator + 1))
+                    .exec(new PullImageResultCallback())
+                    .awaitCompletion();
+            log.info("Pre-pulled image {} in {}ms", image, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pullStartedAt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Failed to pre-pull image {}: {}", image, e.getMessage());
+        }
+    }
+
+    private void evictUnused(DockerClient docker) {
+        Set<String> prePulled = prePulledImages();
+        Instant cutoff = Instant.now().minus(properties.getEvictAfter());
+
+        for (String image : localImages(docker).keySet()) {
+            if (prePulled.contains(image) || !managedRepositories.contains(repository(image))
+                    || lastUsed.getOrDefault(image, startedAt).isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                docker.removeImageCmd(image).exec();
+                lastUsed.remove(image);
+                log.info("Evicted image {} (unused for more than {})", image, properties.getEvictAfter());
+            } catch (ConflictException e) {
+                // Still referenced by a container, possibly a stopped one
+                lastUsed.put(image, Instant.now());
+            } catch (Exception e) {
+                log.warn("Failed to evict image {}: {}", image, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Local images by repo:tag with their size in bytes
+     */
+    private Map<String, Long> localImages(DockerClient docker) {
+        Map<String, Long> images = new HashMap<>();
+        for (Image image : docker.listImagesCmd().exec()) {
+            if (image.getRepoTags() == null) {
+                continue;
+            }
+            for (String tag : image.getRepoTags()) {
+                if (!tag.startsWith("<none>")) {
+                    images.put(tag, image.getSize());
+                }
+            }
+        }
+        return images;
+    }
+
+    private static String repository(String image) {
+        int separator = image.lastIndexOf(':');
+        return separator > 0 ? image.substring(0, separator) : image;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("prePull", properties.isPrePull());
+        details.put("evictAfter", properties.getEvictAfter());
+        details.put("lastRefreshAt", lastRefreshAt);
+
+        Map<String, Long> local;
+        try {
+            local = localImages(dockerClientFactory.getClient());
+        } catch (Exception e) {
+            local = Map.of();
+            details.put("error", "Docker not reachable: " + e.getMessage());
+        }
+
+        Set<String> prePulled = prePulledImages();
+        Set<String> names = new TreeSet<>(prePulled);
+        names.addAll(lastUsed.keySet());
+        local.keySet().stream().filter(image -> managedRepositories.contains(repository(image))).forEach(names::add);
+
+        List<Map<String, Object>> images = new ArrayList<>();
+        for (String image : names) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("image", image);
+            entry.put("present", local.containsKey(image));
+            entry.put("sizeBytes", local.get(image));
+            entry.put("lastUsedAt", lastUsed.get(image));
+            entry.put("prePulled", prePulled.contains(image));
+            AtomicLong cold = coldProvisions.get(image);
+            entry.put("coldProvisions", cold != null ? cold.get() : 0);
+            images.add(entry);
+        }
+        details.put("images", images);
+        builder.withDetail("imageCache", details);
+    }
+}
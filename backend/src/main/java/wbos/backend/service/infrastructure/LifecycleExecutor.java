@@ -0,0 +1,165 @@
+package wbos.backend.service.infrastructure;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wbos.backend.config.LifecycleProperties;
+import wbos.backend.enums.LifecycleOperation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs background lifecycle operations (provision, update, destroy, start/stop)
+ *
+ * Each operation gets its own virtual thread, so blocking Terraform and Docker process waits
+ * never occupy the shared ForkJoin common pool. Per-kind semaphores cap how many operations of
+ * each kind run at once; the rest wait in a queue whose total depth is bounded, and submissions
+ * beyond that are rejected with RejectedExecutionException.
+ *
+ * When called inside a transaction the operation is only started after commit, so the background
+ * task always sees the row the request just saved. Active/queued counts and queue wait times are
+ * exported as lifecycle.executor.* meters.
+ */
+@Component
+@Slf4j
+public class LifecycleExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int maxQueued;
+    private final AtomicInteger totalQueued = new AtomicInteger();
+    private final Map<LifecycleOperation, Semaphore> permits = new EnumMap<>(LifecycleOperation.class);
+    private final Map<LifecycleOperation, AtomicInteger> active = new EnumMap<>(LifecycleOperation.class);
+    private final Map<LifecycleOperation, AtomicInteger> queued = new EnumMap<>(LifecycleOperation.class);
+    private final Map<LifecycleOperation, Timer> waitTimers = new EnumMap<>(LifecycleOperation.class);
+    private final Counter rejected;
+
+    public LifecycleExecutor(LifecycleProperties properties, MeterRegistry meterRegistry) {
+        this.maxQueued = properties.getMaxQueued();
+
+        for (LifecycleOperation operation : LifecycleOperation.values()) {
+            int limit = properties.getMaxConcurrent().getOrDefault(operation, 4);
+            permits.put(operation, new Semaphore(limit, true));
+            active.put(operation, new AtomicInteger());
+            queued.put(operation, new AtomicInteger());
+
+            String tag = operation.name().toLowerCase();
+            Gauge.builder("lifecycle.executor.active", active.get(operation), AtomicInteger::get)
+                    .description("Lifecycle operations currently running")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("lifecycle.executor.queued", queued.get(operation), AtomicInteger::get)
+                    .description("Lifecycle operations waiting for a free slot")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("lifecycle.executor.limit", () -> limit)
+                    .description("Maximum concurrent lifecycle operations")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            waitTimers.put(operation, Timer.builder("lifecycle.executor.queue.wait")
+                    .description("Time lifecycle operations spent waiting for a free slot")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+
+            log.info("Lifecycle executor: {} limited to {} concurrent operation(s)", operation, limit);
+        }
+
+        this.rejected = Counter.builder("lifecycle.executor.rejected")
+                .description("Lifecycle operations rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Submits a lifecycle operation
+     *
+     * @param operation Kind of operation, selects the concurrency limit
+     * @param task The blocking work to run
+     * @return Future completed when the task finishes
+     * @throws RejectedExecutionException if the queue is already at its depth limit
+     */
+    public CompletableFuture<Void> submit(LifecycleOperation operation, Runnable task) {
+        if (totalQueued.incrementAndGet() > maxQueued) {
+            totalQueued.decrementAndGet();
+            rejected.increment();
+            log.warn("Rejected {} operation - lifecycle queue is full ({} waiting)", operation, maxQueued);
+            throw new RejectedExecutionException("Lifecycle queue is full, try again later");
+        }
+        queued.get(operation).incrementAndGet();
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        long enqueuedAt = System.nanoTime();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        start(operation, task, future, enqueuedAt);
+                    } else {
+                        dequeue(operation);
+                        future.cancel(false);
+                    }
+                }
+            });
+        } else {
+            start(operation, task, future, enqueuedAt);
+        }
+
+        return future;
+    }
+
+    private void start(LifecycleOperation operation, Runnable task, CompletableFuture<Void> future, long enqueuedAt) {
+        executor.execute(() -> {
+            Semaphore semaphore = permits.get(operation);
+            try {
+                semaphore.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dequeue(operation);
+                future.completeExceptionally(e);
+                return;
+            }
+
+            dequeue(operation);
+            waitTimers.get(operation).record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            active.get(operation).incrementAndGet();
+            try {
+                task.run();
+                future.complete(null);
+            } catch (Throwable t) {
+                log.error("Unhandled exception in {} operation", operation, t);
+                future.completeExceptionally(t);
+            } finally {
+                active.get(operation).decrementAndGet();
+                semaphore.release();
+            }
+        });
+    }
+
+    private void dequeue(LifecycleOperation operation) {
+        queued.get(operation).decrementAndGet();
+        totalQueued.decrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Lifecycle operations still running at shutdown");
+        }
+    }
+}
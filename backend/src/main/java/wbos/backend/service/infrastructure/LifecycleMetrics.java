@@ -0,0 +1,153 @@
+package wbos.backend.service.infrastructure;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.records.DatabaseStatusCount;
+import wbos.backend.records.TerraformResourceTiming;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the individual phases of lifecycle operations and gauges for database status counts
+ *
+ * Every phase is recorded as lifecycle.phase, tagged with the phase name, the database type
+ * ({@code none} when not known yet) and the outcome: {@code success}, {@code failure} when the
+ * step reported it did not succeed, or {@code error} when it threw. The timer counts double as
+ * per-phase counters.
+ *
+ * terraform.resource times the individual resources of a terraform apply, tagged with the
+ * resource type, the action and the outcome.
+ *
+ * databases.status reports the number of databases per status, read with one grouped query that
+ * is reused for STATUS_COUNT_TTL_MS so a scrape does not query per status.
+ */
+@Component
+@Slf4j
+public class LifecycleMetrics {
+
+    public static final String VALIDATION = "validation";
+    public static final String PORT_ALLOCATION = "port_allocation";
+    public static final String HCL_GENERATION = "hcl_generation";
+    public static final String TERRAFORM_INIT = "terraform_init";
+    public static final String TERRAFORM_APPLY = "terraform_apply";
+    public static final String TERRAFORM_OUTPUT = "terraform_output";
+    public static final String DESTROY = "destroy";
+    public static final String IMAGE_PULL = "image_pull";
+    public static final String DOCKER_CREATE = "docker_create";
+    public static final String DOCKER_START = "docker_start";
+    public static final String DOCKER_STOP = "docker_stop";
+    public static final String DOCKER_UPDATE = "docker_update";
+    public static final String DOCKER_RENAME = "docker_rename";
+    public static final String TERRAFORM_REFRESH = "terraform_refresh";
+    public static final String LOG_FETCH = "log_fetch";
+    public static final String INSPECT = "inspect";
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    public static final String ERROR = "error";
+
+    private static final long STATUS_COUNT_TTL_MS = 5_000;
+
+    private final MeterRegistry meterRegistry;
+    private final DatabaseRepository databaseRepository;
+
+    private volatile Map<DatabaseStatus, Long> statusCounts = Map.of();
+    private volatile long statusCountsReadAt;
+
+    public LifecycleMetrics(MeterRegistry meterRegistry, DatabaseRepository databaseRepository) {
+        this.meterRegistry = meterRegistry;
+        this.databaseRepository = databaseRepository;
+
+        for (DatabaseStatus status : DatabaseStatus.values()) {
+            Gauge.builder("databases.status", this, metrics -> metrics.statusCount(status))
+                    .description("Databases currently in each status")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Times a step whose boolean result is its outcome
+     */
+    public boolean timeCheck(String phase, DatabaseType type, BooleanSupplier step) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = ERROR;
+        try {
+            boolean success = step.getAsBoolean();
+            outcome = success ? SUCCESS : FAILURE;
+            return success;
+        } finally {
+            record(sample, phase, type, outcome);
+        }
+    }
+
+    /**
+     * Times a step that succeeds unless it throws
+     */
+    public <T> T time(String phase, DatabaseType type, Supplier<T> step) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = ERROR;
+        try {
+            T result = step.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            record(sample, phase, type, outcome);
+        }
+    }
+
+    /**
+     * Starts timing a step that is recorded with {@link #record}, for steps throwing checked exceptions
+     */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void record(Timer.Sample sample, String phase, DatabaseType type, String outcome) {
+        sample.stop(Timer.builder("lifecycle.phase")
+                .description("Duration of a lifecycle phase")
+                .tag("phase", phase)
+                .tag("type", type != null ? type.name().toLowerCase() : "none")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Records how long terraform took for one resource, as read from its -json event stream
+     */
+    public void recordResource(TerraformResourceTiming timing) {
+        Timer.builder("terraform.resource")
+                .description("Duration of a single resource change within a terraform apply")
+                .tag("resource_type", timing.resourceType() != null ? timing.resourceType() : "none")
+                .tag("action", timing.action() != null ? timing.action() : "none")
+                .tag("outcome", timing.success() ? SUCCESS : FAILURE)
+                .register(meterRegistry)
+                .record(timing.elapsed());
+    }
+
+    private double statusCount(DatabaseStatus status) {
+        long now = System.currentTimeMillis();
+        if (now - statusCountsReadAt > STATUS_COUNT_TTL_MS) {
+            try {
+                Map<DatabaseStatus, Long> counts = new EnumMap<>(DatabaseStatus.class);
+                for (DatabaseStatusCount count : databaseRepository.countByStatus()) {
+                    counts.put(count.status(), count.count());
+                }
+                statusCounts = counts;
+                statusCountsReadAt = now;
+            } catch (Exception e) {
+                log.debug("Could not read database status counts: {}", e.getMessage());
+            }
+        }
+        return statusCounts.getOrDefault(status, 0L);
+    }
+}
@@ -0,0 +1,248 @@
+package wbos.backend.service.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wbos.backend.config.OperationProperties;
+import wbos.backend.dto.operation.OperationDto;
+import wbos.backend.enums.LifecycleOperation;
+import wbos.backend.enums.OperationPhase;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the phase, progress and last error of running provisions and updates
+ *
+ * An operation is registered when the request is accepted and bound to the lifecycle task that
+ * runs it. While the task runs, the Terraform and Docker execution paths report the phase they
+ * enter through {@link #enterPhase}, which applies to the operation bound to the current thread
+ * and does nothing on threads without one (warm pool refills, background syncs). Progress never
+ * goes backwards, even when a step re-enters an earlier phase.
+ *
+ * Every change increments the operation's version and completes the future that long-polling
+ * readers wait on. Operations live in memory only; finished ones are dropped after
+ * app.operations.retention, and ones whose request rolled back are dropped immediately.
+ */
+@Component
+@Slf4j
+public class OperationTracker {
+
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    private final OperationProperties properties;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public OperationTracker(OperationProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Registers a new operation in QUEUED
+     *
+     * Inside a transaction the operation is discarded again if the transaction rolls back, the
+     * same way LifecycleExecutor then never starts the task.
+     *
+     * @return Operation id
+     */
+    public String begin(LifecycleOperation kind, Long databaseId, String databaseName) {
+        Operation operation = new Operation(UUID.randomUUID().toString(), kind, databaseId, databaseName);
+        operations.put(operation.id, operation);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        discard(operation.id);
+                    }
+                }
+            });
+        }
+        return operation.id;
+    }
+
+    /**
+     * Wraps a lifecycle task so phases reported while it runs are attributed to the operation
+     *
+     * A task that returns without reaching SUCCEEDED or FAILED, for example because the database
+     * was destroyed meanwhile, leaves the operation FAILED.
+     */
+    public Runnable bind(String operationId, Runnable task) {
+        return () -> {
+            Operation operation = operationId != null ? operations.get(operationId) : null;
+            CURRENT.set(operation);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                fail(e.getMessage());
+                throw e;
+            } finally {
+                CURRENT.remove();
+                if (operation != null) {
+                    operation.finish(OperationPhase.FAILED, "Operation ended without a result");
+                }
+            }
+        };
+    }
+
+    /**
+     * Moves the current thread's operation to a phase
+     */
+    public void enterPhase(OperationPhase phase) {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.enter(phase);
+        }
+    }
+
+    /**
+     * Marks the current thread's operation SUCCEEDED
+     */
+    public void succeed() {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.finish(OperationPhase.SUCCEEDED, null);
+        }
+    }
+
+    /**
+     * Marks the current thread's operation FAILED
+     *
+     * @param error Reason shown as lastError
+     */
+    public void fail(String error) {
+        Operation operation = CURRENT.get();
+        if (operation != null) {
+            operation.finish(OperationPhase.FAILED, error != null ? error : "Unknown error");
+        }
+    }
+
+    /**
+     * Drops an operation whose task will never run
+     */
+    public void discard(String operationId) {
+        operations.remove(operationId);
+    }
+
+    public Optional<OperationDto> find(String operationId) {
+        return Optional.ofNullable(operations.get(operationId)).map(Operation::snapshot);
+    }
+
+    /**
+     * Returns a future completed with the operation once its version is past the given one
+     *
+     * Completes immediately if it already is or the operation has finished.
+     *
+     * @return Future of the newer state, or empty if the operation is unknown
+     */
+    public Optional<CompletableFuture<OperationDto>> awaitChange(String operationId, long version) {
+        Operation operation = operations.get(operationId);
+        return operation == null ? Optional.empty() : Optional.of(operation.awaitChange(version));
+    }
+
+    /**
+     * Drops finished operations older than app.operations.retention
+     */
+    @Scheduled(fixedDelayString = "${app.operations.cleanup-interval:60s}")
+    public void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        int before = operations.size();
+        operations.values().removeIf(operation -> operation.finishedBefore(cutoff));
+        if (operations.size() < before) {
+            log.debug("Evicted {} finished operation(s)", before - operations.size());
+        }
+    }
+
+    private static final class Operation {
+
+        private final String id;
+        private final LifecycleOperation kind;
+        private final Long databaseId;
+        private final String databaseName;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final List<OperationDto.PhaseDto> phases = new ArrayList<>();
+
+        private OperationPhase phase = OperationPhase.QUEUED;
+        private int progress;
+        private long version;
+        private String lastError;
+        private LocalDateTime updatedAt = startedAt;
+        private LocalDateTime finishedAt;
+        private CompletableFuture<OperationDto> changed = new CompletableFuture<>();
+
+        Operation(String id, LifecycleOperation kind, Long databaseId, String databaseName) {
+            this.id = id;
+            this.kind = kind;
+            this.databaseId = databaseId;
+            this.databaseName = databaseName;
+            phases.add(new OperationDto.PhaseDto(phase.name(), startedAt));
+        }
+
+        synchronized void enter(OperationPhase next) {
+            if (phase.isFinal() || phase == next) {
+                return;
+            }
+            phase = next;
+            progress = Math.max(progress, next.getProgress());
+            changed(LocalDateTime.now());
+        }
+
+        synchronized void finish(OperationPhase outcome, String error) {
+            if (phase.isFinal()) {
+                return;
+            }
+            phase = outcome;
+            if (outcome == OperationPhase.SUCCEEDED) {
+                progress = outcome.getProgress();
+            }
+            lastError = error != null ? error : lastError;
+            finishedAt = LocalDateTime.now();
+            changed(finishedAt);
+        }
+
+        synchronized CompletableFuture<OperationDto> awaitChange(long knownVersion) {
+            return version > knownVersion || phase.isFinal()
+                    ? CompletableFuture.completedFuture(snapshot())
+                    : changed;
+        }
+
+        synchronized boolean finishedBefore(LocalDateTime cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized OperationDto snapshot() {
+            return OperationDto.builder()
+                    .id(id)
+                    .operation(kind.name())
+                    .databaseId(databaseId)
+                    .databaseName(databaseName)
+                    .phase(phase.name())
+                    .progress(progress)
+                    .version(version)
+                    .lastError(lastError)
+                    .startedAt(startedAt)
+                    .updatedAt(updatedAt)
+                    .finishedAt(finishedAt)
+                    .phases(List.copyOf(phases))
+                    .build();
+        }
+
+        private void changed(LocalDateTime at) {
+            version++;
+            updatedAt = at;
+            phases.add(new OperationDto.PhaseDto(phase.name(), at));
+            CompletableFuture<OperationDto> waiting = changed;
+            changed = new CompletableFuture<>();
+            waiting.complete(snapshot());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package wbos.backend.service.infrastructure;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wbos.backend.config.PortProperties;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hands out host ports for database containers
+ *
+ * Every port in use by a database that is not DESTROYED is tracked in a 65536-bit bitmap
+ * (8 KB), loaded once at startup. Ports are claimed with an atomic update on the 64-bit word
+ * holding them, so concurrent provisions never receive the same port and allocation needs no
+ * database round trip. Each type allocates first-fit upwards from its default start port; a
+ * per-type hint skips the known-full prefix, and released ports lower the hint so they are
+ * reused.
+ */
+@Service
+@Slf4j
+public class PortAllocator {
+
+    private static final int PORT_COUNT = 65536;
+
+    private final DatabaseRepository databaseRepository;
+    private final DatabaseConfigProvider configProvider;
+    private final PortProperties portProperties;
+
+    private final AtomicLongArray bits = new AtomicLongArray(PORT_COUNT / Long.SIZE);
+    private final Map<DatabaseType, AtomicInteger> hints = new EnumMap<>(DatabaseType.class);
+
+    public PortAllocator(DatabaseRepository databaseRepository, DatabaseConfigProvider configProvider,
+                         PortProperties portProperties) {
+        this.databaseRepository = databaseRepository;
+        this.configProvider = configProvider;
+        this.portProperties = portProperties;
+        for (DatabaseType type : DatabaseType.values()) {
+            hints.put(type, new AtomicInteger(configProvider.getDefaultStartPort(type)));
+        }
+    }
+
+    /**
+     * Marks reserved ports and the ports of all non-destroyed databases as taken
+     */
+    @PostConstruct
+    public void load() {
+        portProperties.getReserved().forEach(this::reserve);
+        List<Integer> ports = databaseRepository.findAllocatedPorts();
+        ports.forEach(this::reserve);
+        log.info("Port allocator loaded {} port(s) in use ({} reserved)", ports.size(), portProperties.getReserved());
+    }
+
+    /**
+     * Claims the lowest free port at or above the type's default start port
+     *
+     * @param type The database type
+     * @return The claimed port
+     * @throws IllegalStateException if no port is free up to app.ports.max
+     */
+    public int allocate(DatabaseType type) {
+        AtomicInteger hint = hints.get(type);
+        int initialHint = hint.get();
+        int start = initialHint;
+        List<Integer> busyOnHost = new ArrayList<>();
+
+        try {
+            while (true) {
+                int port = claimFrom(start, portProperties.getMax());
+                if (port < 0) {
+                    throw new IllegalStateException("No free port available for " + type
+                            + " between " + configProvider.getDefaultStartPort(type) + " and " + portProperties.getMax());
+                }
+                if (portProperties.isCheckHostAvailability() && !isFreeOnHost(port)) {
+                    // Keep it claimed while searching so it is not picked again, then hand it back
+                    busyOnHost.add(port);
+                    start = port + 1;
+                    continue;
+                }
+                // Everything below the claimed port was taken when we scanned it; if a release lowered
+                // the hint in the meantime the CAS fails and the hint keeps pointing at the freed port
+                hint.compareAndSet(initialHint, port + 1);
+                return port;
+            }
+        } finally {
+            busyOnHost.forEach(this::release);
+            if (!busyOnHost.isEmpty()) {
+                log.warn("Skipped port(s) {} for {}: bound by another process on the host", busyOnHost, type);
+            }
+        }
+    }
+
+    /**
+     * Claims a specific port
+     *
+     * @param port The requested port
+     * @return true if the port was free and is now reserved, false if it was already taken
+     */
+    public boolean reserve(int port) {
+        if (port < 0 || port >= PORT_COUNT) {
+            return false;
+        }
+        long mask = 1L << (port & 63);
+        long previous = bits.getAndUpdate(port >>> 6, word -> word | mask);
+        return (previous & mask) == 0;
+    }
+
+    /**
+     * Returns a port to the pool
+     */
+    public void release(int port) {
+        if (port < 0 || port >= PORT_COUNT) {
+            return;
+        }
+        long mask = 1L << (port & 63);
+        bits.getAndUpdate(port >>> 6, word -> word & ~mask);
+
+        for (DatabaseType type : DatabaseType.values()) {
+            if (port >= configProvider.getDefaultStartPort(type)) {
+                hints.get(type).accumulateAndGet(port, Math::min);
+            }
+        }
+    }
+
+    /**
+     * Releases the port again if the current transaction rolls back, so a failed insert does not leak it
+     */
+    public void releaseOnRollback(int port) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    release(port);
+                }
+            }
+        });
+    }
+
+    public boolean isAllocated(int port) {
+        return port >= 0 && port < PORT_COUNT && (bits.get(port >>> 6) & (1L << (port & 63))) != 0;
+    }
+
+    /**
+     * Atomically sets the lowest clear bit in [from, to] and returns its port, or -1 if all are set
+     */
+    private int claimFrom(int from, int to) {
+        int last = Math.min(to, PORT_COUNT - 1);
+        for (int word = from >>> 6; word <= last >>> 6; word++) {
+            long window = -1L;
+            if (word == from >>> 6) {
+                window &= -1L << (from & 63);
+            }
+            if (word == last >>> 6 && (last & 63) != 63) {
+                window &= (1L << ((last & 63) + 1)) - 1;
+            }
+            long range = window;
+            long previous = bits.getAndUpdate(word, current -> {
+                long free = ~current & range;
+                return free == 0 ? current : current | Long.lowestOneBit(free);
+            });
+            long free = ~previous & range;
+            if (free != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+
+    private boolean isFreeOnHost(int port) {
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.setReuseAddress(false);
+            socket.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
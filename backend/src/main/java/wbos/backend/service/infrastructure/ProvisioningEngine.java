@@ -0,0 +1,96 @@
+package wbos.backend.service.infrastructure;
+
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.records.ContainerSpec;
+import wbos.backend.records.TerraformResult;
+
+import java.nio.file.Path;
+
+/**
+ * Creates, recreates and removes the containers backing database instances
+ *
+ * The active implementation is chosen with app.provisioning.engine:
+ * - terraform (default): renders HCL and shells out to the terraform binary
+ * - docker: talks to the Docker Engine API directly through docker-java
+ */
+public interface ProvisioningEngine {
+
+    /**
+     * Provisions a new database container
+     *
+     * @param dbName Database/container name
+     * @param type Database type
+     * @param port External port
+     * @param version Image version tag (null for the type default)
+     * @param memoryMb Memory limit in MB (null for unlimited)
+     * @param dataVolume Named volume to keep the data in (null for none)
+     * @return TerraformResult with connection details
+     */
+    TerraformResult provisionDatabase(String dbName, DatabaseType type, Integer port, String version, Integer memoryMb,
+                                      String dataVolume);
+
+    /**
+     * Recreates a database container with new configuration, preserving its password
+     *
+     * Removes everything recorded for the old instance first; used for containers without a
+     * data volume, whose data does not survive the recreate anyway.
+     *
+     * @param oldName Old database name
+     * @param newName New database name (can be same as oldName)
+     * @param type Database type
+     * @param newPort New port number
+     * @param existingPassword Existing password to preserve
+     * @param oldWorkingDir Working directory recorded for the old instance
+     * @param version Image version tag (null for the type default)
+     * @param memoryMb Memory limit in MB (null for unlimited)
+     * @return TerraformResult with new connection details
+     */
+    TerraformResult updateDatabase(String oldName, String newName, DatabaseType type,
+                                   Integer newPort, String existingPassword, Path oldWorkingDir,
+                                   String version, Integer memoryMb);
+
+    /**
+     * Removes a database container
+     *
+     * @param dbName Database/container name
+     * @param workingDir Working directory recorded for the instance
+     * @return true if successful (or there was nothing left to remove)
+     */
+    boolean destroyDatabase(String dbName, Path workingDir);
+
+    /**
+     * Renames a database container in place, running or stopped, keeping its data
+     *
+     * A failed rename leaves the container under its old name; the result's working directory, if
+     * set, is where the instance is recorded afterwards.
+     *
+     * @param oldName Current container name
+     * @param spec Configuration with the new name
+     * @param workingDir Working directory recorded for the instance
+     * @return TerraformResult with the connection details and working directory after the rename
+     */
+    TerraformResult renameDatabase(String oldName, ContainerSpec spec, Path workingDir);
+
+    /**
+     * Applies a changed configuration by replacing only the container, keeping its data volume
+     *
+     * @param spec New configuration, with the container's existing name and data volume
+     * @param workingDir Working directory recorded for the instance
+     * @return TerraformResult with the new connection details
+     */
+    TerraformResult reconfigureDatabase(ContainerSpec spec, Path workingDir);
+
+    /**
+     * Brings the engine's own record of a database in line with a memory limit that was already
+     * applied to its container in place, so a later update does not see drift
+     *
+     * Engines that keep no state besides the container have nothing to do.
+     *
+     * @param spec Configuration with the memory limit now applied to the container
+     * @param workingDir Working directory recorded for the instance
+     * @return true if the engine's record matches the container
+     */
+    default boolean syncMemoryLimit(ContainerSpec spec, Path workingDir) {
+        return true;
+    }
+}
@@ -0,0 +1,229 @@
+package wbos.backend.service.infrastructure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import wbos.backend.config.ReadinessProperties;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.LifecycleOperation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that a database engine actually accepts connections
+ *
+ * A successful terraform apply or docker start only means the container is running; the engine
+ * inside may still be initialising. Each probe attempt opens a TCP connection to the published
+ * port and speaks just enough of the engine's protocol to tell a serving engine from one that is
+ * still starting: the PostgreSQL startup message must be answered with an authentication request,
+ * MySQL/MariaDB must send its handshake, Redis must answer PING with PONG and MongoDB must answer
+ * hello with ok: 1.
+ *
+ * Time from the start of a lifecycle operation until the database is ready is recorded as
+ * lifecycle.time.to.ready, tagged by operation, type and outcome.
+ */
+@Component
+@Slf4j
+public class ReadinessProbe {
+
+    private static final byte[] MONGO_OK = {0x01, 'o', 'k', 0x00, 0, 0, 0, 0, 0, 0, (byte) 0xF0, 0x3F};
+
+    private final ReadinessProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ReadinessProbe(ReadinessProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Probes until the database is ready or app.readiness.timeout has passed
+     *
+     * @param operation Lifecycle operation that made the database start
+     * @param type Database type
+     * @param port Published port
+     * @param password Database password (used by the Redis probe)
+     * @param dbName Database name
+     * @param operationStartedAt System.nanoTime() at which the operation started
+     * @return true once the engine is ready, false on timeout
+     */
+    public boolean awaitReady(LifecycleOperation operation, DatabaseType type, int port, String password,
+                              String dbName, long operationStartedAt) throws InterruptedException {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        int attempts = 0;
+        boolean ready;
+        while (true) {
+            attempts++;
+            ready = isReady(type, port, password, dbName);
+            if (ready || System.nanoTime() > deadline) {
+                break;
+            }
+            Thread.sleep(properties.getInterval().toMillis());
+        }
+
+        long elapsed = System.nanoTime() - operationStartedAt;
+        Timer.builder("lifecycle.time.to.ready")
+                .description("Time from the start of a lifecycle operation until the database accepts connections")
+                .tag("operation", operation.name().toLowerCase())
+                .tag("type", type.name().toLowerCase())
+                .tag("outcome", ready ? "ready" : "timeout")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+
+        if (ready) {
+            log.info("{} database {} ready on port {} after {}ms ({} probe attempt(s))",
+                    type, dbName, port, TimeUnit.NANOSECONDS.toMillis(elapsed), attempts);
+        } else {
+            log.warn("{} database {} not ready on port {} after {}", type, dbName, port, properties.getTimeout());
+        }
+        return ready;
+    }
+
+    /**
+     * Runs a single probe attempt
+     *
+     * @return true if the engine answered like a server that accepts connections
+     */
+    public boolean isReady(DatabaseType type, int port, String password, String dbName) {
+        int timeoutMillis = (int) properties.getAttemptTimeout().toMillis();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(properties.getHost(), port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            return switch (type) {
+                case POSTGRESQL -> probePostgres(in, out, dbName);
+                case MYSQL, MARIADB -> probeMySql(in);
+                case REDIS -> probeRedis(in, out, password);
+                case MONGODB -> probeMongo(in, out);
+            };
+        } catch (IOException e) {
+            log.debug("{} probe on port {} failed: {}", type, port, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Sends a protocol 3.0 startup message; a server still starting up answers with an error instead
+     * of an authentication request
+     */
+    private boolean probePostgres(InputStream in, OutputStream out, String dbName) throws IOException {
+        byte[] parameters = ("user\0postgres\0database\0" + dbName + "\0\0").getBytes(StandardCharsets.UTF_8);
+        out.write(ByteBuffer.allocate(8 + parameters.length)
+                .putInt(8 + parameters.length)
+                .putInt(196608)
+                .put(parameters)
+                .array());
+        out.flush();
+        return in.read() == 'R';
+    }
+
+    /**
+     * Reads the initial packet, which is a protocol 10 handshake once the server accepts connections
+     */
+    private boolean probeMySql(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(5);
+        return header.length == 5 && header[4] == 0x0a;
+    }
+
+    private boolean probeRedis(InputStream in, OutputStream out, String password) throws IOException {
+        boolean authenticate = password != null && !password.isEmpty();
+        String commands = (authenticate ? "AUTH " + password + "\r\n" : "") + "PING\r\n";
+        out.write(commands.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+
+        if (authenticate && !readLine(in).startsWith("+OK")) {
+            return false;
+        }
+        // A server still loading its dataset answers -LOADING
+        return readLine(in).startsWith("+PONG");
+    }
+
+    /**
+     * Sends hello as an OP_MSG and looks for ok: 1.0 in the reply document
+     */
+    private boolean probeMongo(InputStream in, OutputStream out) throws IOException {
+        byte[] hello = bsonHello();
+        int length = 16 + 4 + 1 + hello.length;
+        out.write(ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(length)
+                .putInt(1)
+                .putInt(0)
+                .putInt(2013)
+                .putInt(0)
+                .put((byte) 0)
+                .put(hello)
+                .array());
+        out.flush();
+
+        DataInputStream data = new DataInputStream(in);
+        byte[] header = new byte[16];
+        data.readFully(header);
+        int replyLength = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        if (replyLength <= 16 || replyLength > 16 * 1024 * 1024) {
+            return false;
+        }
+        byte[] reply = new byte[replyLength - 16];
+        data.readFully(reply);
+        return indexOf(reply, MONGO_OK) >= 0;
+    }
+
+    /**
+     * BSON for { hello: 1, $db: "admin" }
+     */
+    private static byte[] bsonHello() {
+        ByteArrayOutputStream elements = new ByteArrayOutputStream();
+        elements.write(0x10);
+        elements.writeBytes("hello\0".getBytes(StandardCharsets.UTF_8));
+        elements.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(1).array());
+        elements.write(0x02);
+        elements.writeBytes("$db\0".getBytes(StandardCharsets.UTF_8));
+        elements.writeBytes(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(6).array());
+        elements.writeBytes("admin\0".getBytes(StandardCharsets.UTF_8));
+        elements.write(0x00);
+
+        byte[] body = elements.toByteArray();
+        return ByteBuffer.allocate(4 + body.length).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(4 + body.length)
+                .put(body)
+                .array();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.append((char) b);
+        }
+        return line.toString();
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,260 @@
+package wbos.backend.service.infrastructure;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import wbos.backend.config.TerraformProperties;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Manages a shared Terraform provider plugin cache and local filesystem mirror
+ *
+ * On startup the Docker provider is mirrored once into a local directory and unpacked into
+ * a shared plugin cache. Every database working directory then gets a CLI config pointing
+ * at both, plus the dependency lock file recorded during warm-up, so `terraform init` only
+ * links the cached plugin into .terraform (Terraform symlinks cache entries on Unix hosts)
+ * and never needs to contact the registry.
+ *
+ * Timing of the initial cold init is kept as a baseline so the time saved by every cached
+ * init can be reported through /actuator/info.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.provisioning", name = "engine", havingValue = "terraform", matchIfMissing = true)
+@Slf4j
+public class TerraformPluginCacheService implements InfoContributor {
+
+    private static final String CLI_CONFIG_FILE = ".terraformrc";
+    private static final String WARMUP_DIR = ".provider-warmup";
+    private static final String LOCK_FILE = ".terraform.lock.hcl";
+
+    private final TerraformProperties properties;
+    private final DatabaseConfigProvider configProvider;
+
+    private final Path cliConfigPath;
+    private final Path warmupDir;
+
+    private volatile boolean ready;
+    private volatile long coldInitMillis = -1;
+    private final AtomicLong cachedInits = new AtomicLong();
+    private final AtomicLong cachedInitMillis = new AtomicLong();
+    private final AtomicLong savedMillis = new AtomicLong();
+
+    public TerraformPluginCacheService(TerraformProperties properties, DatabaseConfigProvider configProvider) {
+        this.properties = properties;
+        this.configProvider = configProvider;
+        this.cliConfigPath = Paths.get(properties.getBaseDir(), CLI_CONFIG_FILE);
+        this.warmupDir = Paths.get(properties.getBaseDir(), WARMUP_DIR);
+    }
+
+    /**
+     * Populates the mirror and plugin cache in the background once the application is up.
+     * Provisioning requests that arrive before warm-up finishes fall back to a direct init.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!properties.getPluginCache().isEnabled()) {
+            log.info("Terraform plugin cache disabled - every working directory will run a full init");
+            return;
+        }
+        Thread.ofVirtual().name("terraform-plugin-cache-warmup").start(this::warmUp);
+    }
+
+    /**
+     * Mirrors the Docker provider (skipped when the mirror is already populated, so a restart
+     * works offline), measures a cold init as baseline and then seeds the shared plugin cache.
+     */
+    void warmUp() {
+        try {
+            Path cacheDir = Paths.get(properties.getPluginCache().getDir());
+            Path mirrorDir = Paths.get(properties.getPluginCache().getMirrorDir());
+            Files.createDirectories(cacheDir);
+            Files.createDirectories(mirrorDir);
+
+            deleteDirectory(warmupDir);
+            Files.createDirectories(warmupDir);
+            Files.writeString(warmupDir.resolve("main.tf"), configProvider.generateProviderRequirements());
+
+            if (!isMirrorPopulated(mirrorDir)) {
+                log.info("Populating Terraform provider mirror at: {}", mirrorDir);
+                if (!runTerraform(warmupDir, Map.of(), "providers", "mirror", mirrorDir.toString())) {
+                    log.warn("Failed to populate provider mirror (host offline?) - continuing without plugin cache");
+                    return;
+                }
+            } else {
+                log.info("Reusing existing Terraform provider mirror at: {}", mirrorDir);
+            }
+
+            Files.writeString(cliConfigPath, generateCliConfig(mirrorDir, null));
+
+            // Cold baseline: install from the mirror without any plugin cache
+            long coldStart = System.nanoTime();
+            if (!runTerraform(warmupDir, Map.of("TF_CLI_CONFIG_FILE", cliConfigPath.toString()), "init", "-input=false")) {
+                log.warn("Baseline terraform init failed - continuing without plugin cache");
+                return;
+            }
+            coldInitMillis = (System.nanoTime() - coldStart) / 1_000_000;
+
+            // Second init with the cache enabled unpacks the provider into the shared cache
+            Files.writeString(cliConfigPath, generateCliConfig(mirrorDir, cacheDir));
+            deleteDirectory(warmupDir.resolve(".terraform"));
+            if (!runTerraform(warmupDir, Map.of("TF_CLI_CONFIG_FILE", cliConfigPath.toString()), "init", "-input=false")) {
+                log.warn("Seeding terraform plugin cache failed - continuing without plugin cache");
+                return;
+            }
+
+            ready = true;
+            log.info("Terraform plugin cache ready at: {} (cold init baseline: {}ms)", cacheDir, coldInitMillis);
+
+        } catch (Exception e) {
+            log.error("Failed to warm up Terraform plugin cache", e);
+        }
+    }
+
+    /**
+     * Environment variables to apply to every terraform process
+     *
+     * @return TF_CLI_CONFIG_FILE pointing at the shared CLI config once the cache is ready, otherwise empty
+     */
+    public Map<String, String> terraformEnvironment() {
+        if (!ready) {
+            return Map.of();
+        }
+        return Map.of("TF_CLI_CONFIG_FILE", cliConfigPath.toString());
+    }
+
+    /**
+     * Prepares a working directory so init resolves providers from the cache only,
+     * by copying in the dependency lock file recorded during warm-up.
+     *
+     * @param workingDir Terraform working directory for a database
+     */
+    public void seedWorkingDirectory(Path workingDir) {
+        if (!ready) {
+            return;
+        }
+        try {
+            Path lockFile = warmupDir.resolve(LOCK_FILE);
+            if (Files.exists(lockFile)) {
+                Files.copy(lockFile, workingDir.resolve(LOCK_FILE), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to seed lock file into: {}", workingDir, e);
+        }
+    }
+
+    /**
+     * Records how long a terraform init took and logs the time saved against the cold baseline
+     *
+     * @param workingDir Terraform working directory the init ran in
+     * @param initMillis Duration of the init in milliseconds
+     */
+    public void recordInit(Path workingDir, long initMillis) {
+        if (!ready || coldInitMillis < 0) {
+            log.info("Terraform init in {} took {}ms (plugin cache not in use)", workingDir, initMillis);
+            return;
+        }
+        long saved = Math.max(0, coldInitMillis - initMillis);
+        cachedInits.incrementAndGet();
+        cachedInitMillis.addAndGet(initMillis);
+        savedMillis.addAndGet(saved);
+        log.info("Terraform init in {} took {}ms (~{}ms saved by plugin cache)", workingDir, initMillis, saved);
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        long inits = cachedInits.get();
+        details.put("enabled", properties.getPluginCache().isEnabled());
+        details.put("ready", ready);
+        details.put("coldInitMillis", coldInitMillis);
+        details.put("cachedInits", inits);
+        details.put("averageCachedInitMillis", inits > 0 ? cachedInitMillis.get() / inits : 0);
+        details.put("totalSavedMillis", savedMillis.get());
+        builder.withDetail("terraformPluginCache", details);
+    }
+
+    private boolean isMirrorPopulated(Path mirrorDir) throws Exception {
+        Path providerDir = mirrorDir.resolve("registry.terraform.io").resolve(DatabaseConfigProvider.DOCKER_PROVIDER_SOURCE);
+        if (!Files.isDirectory(providerDir)) {
+            return false;
+        }
+        try (Stream<Path> entries = Files.list(providerDir)) {
+            return entries.findAny().isPresent();
+        }
+    }
+
+    /**
+     * CLI config restricting the Docker provider to the local mirror; every other provider
+     * is still installed directly from its registry
+     */
+    private String generateCliConfig(Path mirrorDir, Path cacheDir) {
+        String pluginCacheLine = cacheDir != null
+                ? String.format("plugin_cache_dir = \"%s\"%n", cacheDir.toAbsolutePath())
+                : "";
+        return pluginCacheLine + String.format("""
+                provider_installation {
+                  filesystem_mirror {
+                    path    = "%s"
+                    include = ["registry.terraform.io/%s"]
+                  }
+                  direct {
+                    exclude = ["registry.terraform.io/%s"]
+                  }
+                }
+                """, mirrorDir.toAbsolutePath(), DatabaseConfigProvider.DOCKER_PROVIDER_SOURCE,
+                DatabaseConfigProvider.DOCKER_PROVIDER_SOURCE);
+    }
+
+    private boolean runTerraform(Path workingDir, Map<String, String> environment, String... args) {
+        try {
+            String[] command = new String[args.length + 1];
+            command[0] = "terraform";
+            System.arraycopy(args, 0, command, 1, args.length);
+
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.directory(workingDir.toFile());
+            pb.redirectErrorStream(true);
+            pb.environment().putAll(environment);
+
+            Process process = pb.start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("Terraform: {}", line);
+                }
+            }
+            return process.waitFor() == 0;
+
+        } catch (Exception e) {
+            log.error("Failed to execute terraform {}", String.join(" ", args), e);
+            return false;
+        }
+    }
+
+    private void deleteDirectory(Path directory) throws Exception {
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder())
+                        .map(Path::toFile)
+                        .forEach(File::delete);
+            }
+        }
+    }
+}
@@ -1,34 +1,50 @@
 package wbos.backend.service.infrastructure;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import wbos.backend.config.TerraformProperties;
 import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.OperationPhase;
+import wbos.backend.records.ContainerSpec;
+import wbos.backend.records.TerraformResourceTiming;
 import wbos.backend.records.TerraformResult;
+import wbos.backend.service.security.PasswordGenerator;
+import wbos.backend.service.utlis.terraform.TerraformEventStream;
+import wbos.backend.service.utlis.terraform.TerraformOutputParser;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Service for managing Terraform operations
+ *
+ * Default provisioning engine: renders HCL per database and drives the terraform binary.
+ * Renames and memory changes are applied to the container directly and then recorded in the
+ * state with a refresh-only apply, so neither replaces the container.
  */
 @Service
+@ConditionalOnProperty(prefix = "app.provisioning", name = "engine", havingValue = "terraform", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
-public class TerraformService {
+public class TerraformService implements ProvisioningEngine {
 
     private final DatabaseConfigProvider configProvider;
-
-    private static final String TERRAFORM_BASE_DIR = "/tmp/terraform";
-    private static final String CHARSET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-    private static final int PASSWORD_LENGTH = 24;
+    private final TerraformProperties terraformProperties;
+    private final TerraformPluginCacheService pluginCacheService;
+    private final PasswordGenerator passwordGenerator;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final ContainerRuntime containerRuntime;
+    private final OperationTracker operationTracker;
 
     /**
      * Provisions a database using Terraform
@@ -36,22 +52,27 @@ public class TerraformService {
      * @param dbName Database name
      * @param type Database type
      * @param port External port
+     * @param dataVolume Named volume to keep the data in (null for none)
      * @return TerraformResult with connection details
      */
-    public TerraformResult provisionDatabase(String dbName, DatabaseType type, Integer port, String version, Integer memoryMb) {
+    @Override
+    public TerraformResult provisionDatabase(String dbName, DatabaseType type, Integer port, String version, Integer memoryMb,
+                                             String dataVolume) {
         log.info("Starting Terraform provisioning for database: {} (type: {}, version: {}, memory: {}MB)",
                 dbName, type, version, memoryMb != null ? memoryMb : "unlimited");
 
         try {
             // Create working directory
-            Path workingDir = Paths.get(TERRAFORM_BASE_DIR, dbName);
+            Path workingDir = Paths.get(terraformProperties.getBaseDir(), dbName);
             Files.createDirectories(workingDir);
 
             // Generate secure password
-            String password = generateSecurePassword();
+            String password = passwordGenerator.generate();
 
             // Generate Terraform configuration using config provider
-            String terraformConfig = configProvider.generateTerraformConfig(type, dbName, port, password, version, memoryMb);
+            ContainerSpec spec = new ContainerSpec(dbName, type, port, password, version, memoryMb, dbName, dataVolume);
+            String terraformConfig = lifecycleMetrics.time(LifecycleMetrics.HCL_GENERATION, type,
+                    () -> configProvider.generateTerraformConfig(spec));
             Path mainTfPath = workingDir.resolve("main.tf");
             Files.writeString(mainTfPath, terraformConfig);
 
@@ -59,20 +80,21 @@ public class TerraformService {
 
             // Execute terraform init
             log.info("Executing terraform init in: {}", workingDir);
-            if (!executeTerraformCommand(workingDir, "init")) {
+            if (!lifecycleMetrics.timeCheck(LifecycleMetrics.TERRAFORM_INIT, type, () -> executeTerraformInit(workingDir))) {
                 return new TerraformResult(false, null, null, null,
                         "Terraform init failed", workingDir);
             }
 
             // Execute terraform apply
             log.info("Executing terraform apply in: {}", workingDir);
-            if (!executeTerraformCommand(workingDir, "apply", "-auto-approve")) {
+            ApplyRun apply = executeTerraformApply(LifecycleMetrics.TERRAFORM_APPLY, type, workingDir, "-auto-approve");
+            if (!apply.success()) {
                 return new TerraformResult(false, null, null, null,
-                        "Terraform apply failed", workingDir);
+                        apply.failureMessage("Terraform apply failed"), workingDir);
             }
 
-            // Extract outputs
-            Map<String, String> outputs = extractTerraformOutputs(workingDir);
+            // Outputs come with the apply's event stream
+            Map<String, String> outputs = outputs(apply, type, workingDir);
             String connectionString = outputs.getOrDefault("connection_string",
                     configProvider.generateConnectionString(type, dbName, port, password));
             String containerId = outputs.get("container_id");
@@ -91,12 +113,14 @@ public class TerraformService {
     }
 
     /**
-     * Destroys a PostgreSQL database using Terraform
+     * Destroys a database using Terraform
      *
+     * @param dbName Database name
      * @param workingDir Terraform working directory
      * @return true if successful
      */
-    public boolean destroyPostgres(Path workingDir) {
+    @Override
+    public boolean destroyDatabase(String dbName, Path workingDir) {
         log.info("Starting Terraform destroy in: {}", workingDir);
 
         try {
@@ -125,21 +149,200 @@ public class TerraformService {
     }
 
     /**
-     * Executes a Terraform command
+     * Rewrites main.tf with the new memory limit and refreshes the state from the live container
+     *
+     * The limit was already applied with a Docker container update, so a refresh-only apply is
+     * enough: afterwards config, state and container agree and the next plan has no changes.
      */
-    private boolean executeTerraformCommand(Path workingDir, String... args) {
+    @Override
+    public boolean syncMemoryLimit(ContainerSpec spec, Path workingDir) {
+        if (workingDir == null || !Files.exists(workingDir.resolve("main.tf"))) {
+            log.warn("No Terraform working directory for database {}, cannot record memory limit", spec.name());
+            return false;
+        }
+
         try {
-            String[] command = new String[args.length + 1];
-            command[0] = "terraform";
-            System.arraycopy(args, 0, command, 1, args.length);
+            boolean success = refreshState(spec, workingDir).success();
+            if (success) {
+                log.info("Recorded memory limit of {}MB for database {} in Terraform state", spec.memoryMb(), spec.name());
+            } else {
+                log.error("Terraform refresh failed for database {} after memory change", spec.name());
+            }
+            return success;
 
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.directory(workingDir.toFile());
-            pb.redirectErrorStream(true);
+        } catch (Exception e) {
+            log.error("Failed to record memory limit for database {}", spec.name(), e);
+            return false;
+        }
+    }
 
-            log.info("Executing: {} in {}", String.join(" ", command), workingDir);
+    /**
+     * Renames the container with Docker, moves the working directory to the new name and records
+     * the new name in the state with a refresh-only apply
+     *
+     * The working directory is moved rather than re-created, so the state, the lock file and the
+     * initialised .terraform directory are kept. If the move or the refresh fails, the directory,
+     * its main.tf and the container name are put back, so the instance stays reachable under the
+     * old name and working directory reported in the result.
+     */
+    @Override
+    public TerraformResult renameDatabase(String oldName, ContainerSpec spec, Path workingDir) {
+        log.info("Renaming {} database: {} -> {}", spec.type(), oldName, spec.name());
 
-            Process process = pb.start();
+        if (workingDir == null || !Files.exists(workingDir.resolve("terraform.tfstate"))) {
+            return new TerraformResult(false, null, null, null,
+                    "No Terraform state for database " + oldName, workingDir);
+        }
+
+        try {
+            String previousConfig = Files.readString(workingDir.resolve("main.tf"));
+
+            operationTracker.enterPhase(OperationPhase.APPLYING);
+            if (!lifecycleMetrics.timeCheck(LifecycleMetrics.DOCKER_RENAME, spec.type(),
+                    () -> containerRuntime.rename(oldName, spec.name()))) {
+                return new TerraformResult(false, null, null, null,
+                        "Docker rename failed", workingDir);
+            }
+
+            Path newWorkingDir = Paths.get(terraformProperties.getBaseDir(), spec.name());
+            ApplyRun refresh;
+            try {
+                Files.move(workingDir, newWorkingDir);
+                refresh = refreshState(spec, newWorkingDir);
+            } catch (Exception e) {
+                log.error("Failed to move or refresh renamed database: {} -> {}", oldName, spec.name(), e);
+                return new TerraformResult(false, null, null, null, e.getMessage(),
+                        undoRename(oldName, spec.name(), workingDir, newWorkingDir, previousConfig));
+            }
+            if (!refresh.success()) {
+                return new TerraformResult(false, null, null, null,
+                        refresh.failureMessage("Terraform refresh failed during rename"),
+                        undoRename(oldName, spec.name(), workingDir, newWorkingDir, previousConfig));
+            }
+
+            Map<String, String> outputs = outputs(refresh, spec.type(), newWorkingDir);
+            String connectionString = outputs.getOrDefault("connection_string",
+                    configProvider.generateConnectionString(spec.type(), spec.databaseName(), spec.port(), spec.password()));
+
+            log.info("Successfully renamed {} database: {} -> {}", spec.type(), oldName, spec.name());
+            return new TerraformResult(true, connectionString, outputs.get("container_id"), spec.password(),
+                    null, newWorkingDir);
+
+        } catch (Exception e) {
+            log.error("Failed to rename database: {} -> {}", oldName, spec.name(), e);
+            return new TerraformResult(false, null, null, null,
+                    e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Puts a renamed container and its moved working directory back under the old name
+     *
+     * @return Working directory the instance is left in; the new one if it could not be moved back
+     */
+    private Path undoRename(String oldName, String newName, Path oldWorkingDir, Path newWorkingDir,
+                            String previousConfig) {
+        if (Files.exists(newWorkingDir)) {
+            try {
+                Files.writeString(newWorkingDir.resolve("main.tf"), previousConfig);
+                Files.move(newWorkingDir, oldWorkingDir);
+            } catch (IOException e) {
+                log.error("Could not move working directory back after failed rename: {} -> {}",
+                        newWorkingDir, oldWorkingDir, e);
+                return newWorkingDir;
+            }
+        }
+        if (!containerRuntime.rename(newName, oldName)) {
+            log.error("Could not rename container {} back to {}; its state is kept in {}", newName, oldName, oldWorkingDir);
+        }
+        return oldWorkingDir;
+    }
+
+    /**
+     * Applies the new configuration in the existing working directory
+     *
+     * The data volume is a separate resource that does not change, so terraform replaces only the
+     * docker_container. The .terraform directory from provisioning is reused; init only runs if it
+     * is missing.
+     */
+    @Override
+    public TerraformResult reconfigureDatabase(ContainerSpec spec, Path workingDir) {
+        log.info("Reconfiguring {} database {} in place (port: {}, memory: {}MB)", spec.type(), spec.name(),
+                spec.port(), spec.memoryMb() != null ? spec.memoryMb() : "unlimited");
+
+        if (workingDir == null || !Files.exists(workingDir.resolve("terraform.tfstate"))) {
+            return new TerraformResult(false, null, null, null,
+                    "No Terraform state for database " + spec.name(), workingDir);
+        }
+
+        try {
+            writeConfig(spec, workingDir);
+
+            if (!Files.isDirectory(workingDir.resolve(".terraform"))
+                    && !lifecycleMetrics.timeCheck(LifecycleMetrics.TERRAFORM_INIT, spec.type(),
+                            () -> executeTerraformInit(workingDir))) {
+                return new TerraformResult(false, null, null, null,
+                        "Terraform init failed during update", workingDir);
+            }
+
+            ApplyRun apply = executeTerraformApply(LifecycleMetrics.TERRAFORM_APPLY, spec.type(), workingDir, "-auto-approve");
+            if (!apply.success()) {
+                return new TerraformResult(false, null, null, null,
+                        apply.failureMessage("Terraform apply failed during update"), workingDir);
+            }
+
+            Map<String, String> outputs = outputs(apply, spec.type(), workingDir);
+            String connectionString = outputs.getOrDefault("connection_string",
+                    configProvider.generateConnectionString(spec.type(), spec.databaseName(), spec.port(), spec.password()));
+
+            log.info("Successfully reconfigured {} database {} (container: {})",
+                    spec.type(), spec.name(), outputs.get("container_id"));
+            return new TerraformResult(true, connectionString, outputs.get("container_id"), spec.password(),
+                    null, workingDir);
+
+        } catch (Exception e) {
+            log.error("Failed to reconfigure database: {}", spec.name(), e);
+            return new TerraformResult(false, null, null, null,
+                    e.getMessage(), null);
+        }
+    }
+
+    /**
+     * Writes main.tf for a spec and runs a refresh-only apply, for changes already made to the container
+     */
+    private ApplyRun refreshState(ContainerSpec spec, Path workingDir) throws Exception {
+        writeConfig(spec, workingDir);
+        return executeTerraformApply(LifecycleMetrics.TERRAFORM_REFRESH, spec.type(), workingDir,
+                "-refresh-only", "-auto-approve");
+    }
+
+    private void writeConfig(ContainerSpec spec, Path workingDir) throws Exception {
+        String terraformConfig = lifecycleMetrics.time(LifecycleMetrics.HCL_GENERATION, spec.type(),
+                () -> configProvider.generateTerraformConfig(spec));
+        Files.writeString(workingDir.resolve("main.tf"), terraformConfig);
+    }
+
+    /**
+     * Executes terraform init, linking providers from the shared plugin cache when it is ready
+     */
+    private boolean executeTerraformInit(Path workingDir) {
+        operationTracker.enterPhase(OperationPhase.INITIALISING);
+        pluginCacheService.seedWorkingDirectory(workingDir);
+
+        long start = System.nanoTime();
+        boolean success = executeTerraformCommand(workingDir, "init", "-input=false");
+        if (success) {
+            pluginCacheService.recordInit(workingDir, (System.nanoTime() - start) / 1_000_000);
+        }
+        return success;
+    }
+
+    /**
+     * Executes a Terraform command
+     */
+    private boolean executeTerraformCommand(Path workingDir, String... args) {
+        try {
+            Process process = startTerraform(workingDir, args);
 
             // Read output
             try (BufferedReader reader = new BufferedReader(
@@ -161,6 +364,85 @@ public class TerraformService {
         }
     }
 
+    /**
+     * Executes terraform apply -json and reads its event stream while it runs
+     *
+     * The outputs and error diagnostics are taken from the stream, and every resource's timing is
+     * logged and recorded as terraform.resource. The whole run is timed under the given phase.
+     */
+    private ApplyRun executeTerraformApply(String phase, DatabaseType type, Path workingDir, String... args) {
+        String[] applyArgs = new String[args.length + 2];
+        applyArgs[0] = "apply";
+        applyArgs[1] = "-json";
+        System.arraycopy(args, 0, applyArgs, 2, args.length);
+        operationTracker.enterPhase(OperationPhase.APPLYING);
+
+        TerraformEventStream events = new TerraformEventStream();
+        Timer.Sample sample = lifecycleMetrics.start();
+        String outcome = LifecycleMetrics.ERROR;
+        try {
+            Process process = startTerraform(workingDir, applyArgs);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log.debug("Terraform: {}", events.accept(line));
+                }
+            }
+
+            int exitCode = process.waitFor();
+            log.info("Terraform apply completed with exit code: {}", exitCode);
+            outcome = exitCode == 0 ? LifecycleMetrics.SUCCESS : LifecycleMetrics.FAILURE;
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Failed to execute terraform apply", e);
+        } finally {
+            lifecycleMetrics.record(sample, phase, type, outcome);
+        }
+
+        for (TerraformResourceTiming resource : events.resources()) {
+            log.info("Terraform {} of {} {} in {}ms", resource.action(), resource.address(),
+                    resource.success() ? "completed" : "failed", resource.elapsed().toMillis());
+            lifecycleMetrics.recordResource(resource);
+        }
+        events.errors().forEach(error -> log.error("Terraform error in {}: {}", workingDir, error));
+
+        return new ApplyRun(LifecycleMetrics.SUCCESS.equals(outcome), events);
+    }
+
+    /**
+     * Starts terraform in a working directory with stderr merged into stdout
+     */
+    private Process startTerraform(Path workingDir, String... args) throws IOException {
+        String[] command = new String[args.length + 1];
+        command[0] = "terraform";
+        System.arraycopy(args, 0, command, 1, args.length);
+
+        ProcessBuilder pb = new ProcessBuilder(command);
+        pb.directory(workingDir.toFile());
+        pb.redirectErrorStream(true);
+        pb.environment().putAll(pluginCacheService.terraformEnvironment());
+
+        log.info("Executing: {} in {}", String.join(" ", command), workingDir);
+        return pb.start();
+    }
+
+    /**
+     * Outputs of an apply, read from its outputs message
+     *
+     * Falls back to a terraform output process only if the stream had no outputs message.
+     */
+    private Map<String, String> outputs(ApplyRun apply, DatabaseType type, Path workingDir) {
+        if (apply.events().hasOutputs()) {
+            return apply.events().outputs();
+        }
+        log.warn("No outputs in the terraform apply event stream, reading them with terraform output");
+        return lifecycleMetrics.time(LifecycleMetrics.TERRAFORM_OUTPUT, type, () -> extractTerraformOutputs(workingDir));
+    }
+
     /**
      * Extracts Terraform outputs
      */
@@ -170,6 +452,7 @@ public class TerraformService {
         try {
             ProcessBuilder pb = new ProcessBuilder("terraform", "output", "-json");
             pb.directory(workingDir.toFile());
+            pb.environment().putAll(pluginCacheService.terraformEnvironment());
 
             Process process = pb.start();
             StringBuilder output = new StringBuilder();
@@ -184,16 +467,7 @@ public class TerraformService {
 
             process.waitFor();
 
-            // Simple JSON parsing
-            String json = output.toString();
-            if (json.contains("connection_string")) {
-                outputs.put("connection_string",
-                        extractJsonValue(json, "connection_string"));
-            }
-            if (json.contains("container_id")) {
-                outputs.put("container_id",
-                        extractJsonValue(json, "container_id"));
-            }
+            outputs.putAll(TerraformOutputParser.parse(output.toString()));
 
         } catch (Exception e) {
             log.warn("Failed to extract terraform outputs", e);
@@ -202,37 +476,6 @@ public class TerraformService {
         return outputs;
     }
 
-    /**
-     * Simple JSON value extractor
-     */
-    private String extractJsonValue(String json, String key) {
-        try {
-            String pattern = "\"" + key + "\".*?\"value\":\\s*\"([^\"]+)\"";
-            java.util.regex.Pattern p = java.util.regex.Pattern.compile(pattern);
-            java.util.regex.Matcher m = p.matcher(json);
-            if (m.find()) {
-                return m.group(1);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to extract JSON value for key: {}", key);
-        }
-        return null;
-    }
-
-    /**
-     * Generates a secure random password
-     */
-    private String generateSecurePassword() {
-        SecureRandom random = new SecureRandom();
-        StringBuilder password = new StringBuilder(PASSWORD_LENGTH);
-
-        for (int i = 0; i < PASSWORD_LENGTH; i++) {
-            password.append(CHARSET.charAt(random.nextInt(CHARSET.length())));
-        }
-
-        return password.toString();
-    }
-
     /**
      * Updates a database using Terraform
      * This destroys the old infrastructure and recreates it with new configuration
@@ -245,6 +488,7 @@ public class TerraformService {
      * @param oldWorkingDir Old Terraform working directory
      * @return TerraformResult with new connection details
      */
+    @Override
     public TerraformResult updateDatabase(String oldName, String newName, DatabaseType type,
                                           Integer newPort, String existingPassword, Path oldWorkingDir,
                                           String version, Integer memoryMb) {
@@ -255,7 +499,9 @@ public class TerraformService {
             // Step 1: Destroy old infrastructure if it exists
             if (Files.exists(oldWorkingDir)) {
                 log.info("Destroying old infrastructure at: {}", oldWorkingDir);
-                if (!executeTerraformCommand(oldWorkingDir, "destroy", "-auto-approve")) {
+                operationTracker.enterPhase(OperationPhase.APPLYING);
+                if (!lifecycleMetrics.timeCheck(LifecycleMetrics.DESTROY, type,
+                        () -> executeTerraformCommand(oldWorkingDir, "destroy", "-auto-approve"))) {
                     log.warn("Failed to destroy old infrastructure, continuing with update...");
                 }
                 // Delete old directory
@@ -263,11 +509,12 @@ public class TerraformService {
             }
 
             // Step 2: Create new working directory with new name
-            Path newWorkingDir = Paths.get(TERRAFORM_BASE_DIR, newName);
+            Path newWorkingDir = Paths.get(terraformProperties.getBaseDir(), newName);
             Files.createDirectories(newWorkingDir);
 
             // Step 3: Generate new Terraform configuration with existing password, version, and memory
-            String terraformConfig = configProvider.generateTerraformConfig(type, newName, newPort, existingPassword, version, memoryMb);
+            String terraformConfig = lifecycleMetrics.time(LifecycleMetrics.HCL_GENERATION, type,
+                    () -> configProvider.generateTerraformConfig(type, newName, newPort, existingPassword, version, memoryMb));
             Path mainTfPath = newWorkingDir.resolve("main.tf");
             Files.writeString(mainTfPath, terraformConfig);
 
@@ -275,20 +522,21 @@ public class TerraformService {
 
             // Step 4: Execute terraform init
             log.info("Executing terraform init in: {}", newWorkingDir);
-            if (!executeTerraformCommand(newWorkingDir, "init")) {
+            if (!lifecycleMetrics.timeCheck(LifecycleMetrics.TERRAFORM_INIT, type, () -> executeTerraformInit(newWorkingDir))) {
                 return new TerraformResult(false, null, null, null,
                         "Terraform init failed during update", newWorkingDir);
             }
 
             // Step 5: Execute terraform apply
             log.info("Executing terraform apply in: {}", newWorkingDir);
-            if (!executeTerraformCommand(newWorkingDir, "apply", "-auto-approve")) {
+            ApplyRun apply = executeTerraformApply(LifecycleMetrics.TERRAFORM_APPLY, type, newWorkingDir, "-auto-approve");
+            if (!apply.success()) {
                 return new TerraformResult(false, null, null, null,
-                        "Terraform apply failed during update", newWorkingDir);
+                        apply.failureMessage("Terraform apply failed during update"), newWorkingDir);
             }
 
-            // Step 6: Extract outputs
-            Map<String, String> outputs = extractTerraformOutputs(newWorkingDir);
+            // Step 6: Read outputs from the apply's event stream
+            Map<String, String> outputs = outputs(apply, type, newWorkingDir);
             String connectionString = outputs.getOrDefault("connection_string",
                     configProvider.generateConnectionString(type, newName, newPort, existingPassword));
             String containerId = outputs.get("container_id");
@@ -317,4 +565,15 @@ public class TerraformService {
                     .forEach(File::delete);
         }
     }
+
+    /**
+     * Result of a terraform apply -json run
+     */
+    private record ApplyRun(boolean success, TerraformEventStream events) {
+
+        /** Failure message with the first error diagnostic, if terraform reported one */
+        String failureMessage(String prefix) {
+            return events.errors().isEmpty() ? prefix : prefix + ": " + events.errors().get(0);
+        }
+    }
 }
@@ -0,0 +1,381 @@
+package wbos.backend.service.infrastructure;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.ContainerPort;
+import com.github.dockerjava.api.model.Frame;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wbos.backend.config.DockerClientFactory;
+import wbos.backend.config.ProvisioningProperties;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.OperationPhase;
+import wbos.backend.records.TerraformResult;
+import wbos.backend.service.security.PasswordGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps idle, fully initialised database containers that new databases can take over
+ *
+ * For every configured type and version a number of standby containers is started ahead of
+ * time, each bound to a port from the PortAllocator and initialised with a placeholder database
+ * and a throwaway password. A create request without an explicit port reserves a standby and
+ * gets its port; the provisioning task then renames the container, rotates the password, renames
+ * or creates the database and applies the memory limit, which takes about a second instead of a
+ * full engine initialisation. Docker cannot change the port bindings of an existing container,
+ * so requests with an explicit port always take the regular path.
+ *
+ * The pool is refilled in the background after each claim and on app.provisioning.warm-pool.refill-interval.
+ * Standby containers left over from a previous run are removed on startup. Redis is never pooled:
+ * its password is part of the container command and would be restored on the next restart.
+ * Enabled with app.provisioning.engine=docker and app.provisioning.warm-pool.enabled=true.
+ */
+@Service
+@ConditionalOnExpression("'${app.provisioning.engine:terraform}' == 'docker' and ${app.provisioning.warm-pool.enabled:false}")
+@Slf4j
+public class WarmPoolService {
+
+    static final String STANDBY_LABEL = "local-cloud.standby";
+    private static final String STANDBY_PREFIX = "standby-";
+    private static final String STANDBY_DB = "standby";
+    private static final long PROBE_INTERVAL_MS = 500;
+
+    private final DockerClientFactory dockerClientFactory;
+    private final DockerProvisioningEngine dockerEngine;
+    private final DatabaseConfigProvider configProvider;
+    private final PortAllocator portAllocator;
+    private final PasswordGenerator passwordGenerator;
+    private final ProvisioningProperties.WarmPool properties;
+    private final OperationTracker operationTracker;
+
+    private final Map<String, Queue<Standby>> idle = new ConcurrentHashMap<>();
+    private final Map<Integer, Standby> reserved = new ConcurrentHashMap<>();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private volatile boolean started;
+
+    public WarmPoolService(DockerClientFactory dockerClientFactory, DockerProvisioningEngine dockerEngine,
+                           DatabaseConfigProvider configProvider, PortAllocator portAllocator,
+                           PasswordGenerator passwordGenerator, ProvisioningProperties provisioningProperties,
+                           OperationTracker operationTracker) {
+        this.dockerClientFactory = dockerClientFactory;
+        this.dockerEngine = dockerEngine;
+        this.configProvider = configProvider;
+        this.portAllocator = portAllocator;
+        this.passwordGenerator = passwordGenerator;
+        this.properties = provisioningProperties.getWarmPool();
+        this.operationTracker = operationTracker;
+    }
+
+    /**
+     * Removes standby containers of a previous run and fills the pool in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPool() {
+        Thread.ofVirtual().name("warm-pool-start").start(() -> {
+            removeLeftoverStandbys();
+            started = true;
+            refill();
+        });
+    }
+
+    /**
+     * Takes an idle standby for a new database
+     *
+     * The standby keeps its port in the PortAllocator; if the surrounding transaction rolls back
+     * it goes back to the pool, otherwise a replacement is started after commit.
+     *
+     * @param type Database type
+     * @param version Requested version (null for the type default)
+     * @return Port of the reserved standby, or empty if none is idle
+     */
+    public OptionalInt reserve(DatabaseType type, String version) {
+        Queue<Standby> queue = idle.get(key(type, version));
+        Standby standby = queue != null ? queue.poll() : null;
+        if (standby == null) {
+            return OptionalInt.empty();
+        }
+
+        reserved.put(standby.port(), standby);
+        log.info("Reserved standby {} container on port {}", type, standby.port());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        requestRefill();
+                    } else if (reserved.remove(standby.port(), standby)) {
+                        queue.add(standby);
+                    }
+                }
+            });
+        } else {
+            requestRefill();
+        }
+        return OptionalInt.of(standby.port());
+    }
+
+    /**
+     * Turns the standby reserved on the given port into the named database
+     *
+     * @param port Port returned by reserve
+     * @param dbName Database (and container) name
+     * @param memoryMb Memory limit in MB, null for unlimited
+     * @return The provisioning result, or empty if no standby is reserved on the port or the
+     *         takeover failed; the caller then provisions a new container on the same port
+     */
+    public Optional<TerraformResult> claim(int port, String dbName, Integer memoryMb) {
+        Standby standby = reserved.remove(port);
+        if (standby == null) {
+            return Optional.empty();
+        }
+
+        long startedAt = System.nanoTime();
+        DockerClient docker = dockerClientFactory.getClient();
+        operationTracker.enterPhase(OperationPhase.APPLYING);
+        try {
+            String password = passwordGenerator.generate();
+            docker.renameContainerCmd(standby.containerId()).withName(dbName).exec();
+
+            int exitCode = exec(docker, standby.containerId(), takeOverCommand(standby, dbName, password));
+            if (exitCode != 0) {
+                throw new IllegalStateException("Credential rotation exited with code " + exitCode);
+            }
+
+            if (memoryMb != null && memoryMb > 0) {
+                // Same swap allowance Docker applies when the limit is set at creation
+                long bytes = memoryMb * 1024L * 1024L;
+                docker.updateContainerCmd(standby.containerId()).withMemory(bytes).withMemorySwap(bytes * 2).exec();
+            }
+
+            log.info("Claimed standby {} container for database {} on port {} in {}ms", standby.type(), dbName, port,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            return Optional.of(new TerraformResult(true,
+                    configProvider.generateConnectionString(standby.type(), dbName, port, password),
+                    standby.containerId(), password, null, null));
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Failed to claim standby container for database {}, creating a new one: {}", dbName, e.getMessage());
+            dockerEngine.removeContainer(docker, standby.containerId());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Tops the pool up off the scheduler thread, since waiting for standbys to become ready would
+     * hold up every other scheduled job meanwhile
+     */
+    @Scheduled(fixedDelayString = "${app.provisioning.warm-pool.refill-interval:30s}")
+    public void refillPeriodically() {
+        if (started) {
+            requestRefill();
+        }
+    }
+
+    /**
+     * Starts standby containers until every target has its configured number of idle containers
+     */
+    private void refill() {
+        if (!started) {
+            return;
+        }
+        refillRequested.set(true);
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (refillRequested.getAndSet(false)) {
+                try (ExecutorService starter = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (ProvisioningProperties.Target target : properties.getTargets()) {
+                        if (target.getType() == null || target.getType() == DatabaseType.REDIS) {
+                            continue;
+                        }
+                        String key = key(target.getType(), target.getVersion());
+                        int missing = target.getSize() - idle.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).size();
+                        for (int i = 0; i < missing; i++) {
+                            starter.execute(() -> startStandby(key, target.getType(), target.getVersion()));
+                        }
+                    }
+                }
+            }
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        started = false;
+        DockerClient docker = dockerClientFactory.getClient();
+        idle.values().forEach(queue -> {
+            Standby standby;
+            while ((standby = queue.poll()) != null) {
+                dockerEngine.removeContainer(docker, standby.containerId());
+            }
+        });
+    }
+
+    private void requestRefill() {
+        Thread.ofVirtual().name("warm-pool-refill").start(this::refill);
+    }
+
+    private void startStandby(String key, DatabaseType type, String version) {
+        DockerClient docker = dockerClientFactory.getClient();
+        int port;
+        try {
+            port = portAllocator.allocate(type);
+        } catch (IllegalStateException e) {
+            log.warn("No port left for a standby {} container: {}", type, e.getMessage());
+            return;
+        }
+
+        String name = STANDBY_PREFIX + type.name().toLowerCase() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String password = passwordGenerator.generate();
+        String containerId = null;
+        try {
+            long startedAt = System.nanoTime();
+            containerId = dockerEngine.createAndStartContainer(docker, name, STANDBY_DB, type, port, password,
+                    version, null, null, Map.of(STANDBY_LABEL, key));
+            awaitReady(docker, containerId, type);
+
+            idle.get(key).add(new Standby(containerId, type, port, password));
+            log.info("Standby {} container {} ready on port {} after {}ms", type, name, port,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Failed to start standby {} container {}: {}", type, name, e.getMessage());
+            if (containerId != null) {
+                dockerEngine.removeContainer(docker, containerId);
+            }
+            portAllocator.release(port);
+        }
+    }
+
+    /**
+     * Waits until the engine accepts TCP connections on the container's own address
+     *
+     * The official images run a temporary, socket-only server while initialising, so probing the
+     * container IP only succeeds once initialisation has finished and the real server is up.
+     */
+    private void awaitReady(DockerClient docker, String containerId, DatabaseType type) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getReadyTimeout().toNanos();
+        String probe = switch (type) {
+            case POSTGRESQL -> "pg_isready -q -h \"$ip\" -U postgres";
+            case MYSQL      -> "mysqladmin ping --silent -h \"$ip\" -uroot -p\"$MYSQL_ROOT_PASSWORD\"";
+            case MARIADB    -> "mariadb-admin ping --silent -h \"$ip\" -uroot -p\"$MARIADB_ROOT_PASSWORD\"";
+            case MONGODB    -> "mongosh --quiet --host \"$ip\" --eval 'db.runCommand({ ping: 1 }).ok'";
+            case REDIS      -> throw new IllegalArgumentException("Redis is not pooled");
+        };
+
+        while (exec(docker, containerId, "sh", "-c", "ip=$(hostname -i | cut -d' ' -f1); " + probe) != 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Not ready after " + properties.getReadyTimeout());
+            }
+            Thread.sleep(PROBE_INTERVAL_MS);
+        }
+    }
+
+    /**
+     * Renames or creates the database and replaces the standby password; passwords are alphanumeric
+     * and database names are validated to [a-z0-9-], so both are safe to embed in the statements
+     */
+    private String[] takeOverCommand(Standby standby, String dbName, String password) {
+        return switch (standby.type()) {
+            case POSTGRESQL -> new String[] {"psql", "-v", "ON_ERROR_STOP=1", "-U", "postgres", "-d", "postgres",
+                    "-c", "ALTER DATABASE " + STANDBY_DB + " RENAME TO \"" + dbName + "\"",
+                    "-c", "ALTER USER postgres PASSWORD '" + password + "'"};
+            case MYSQL, MARIADB -> new String[] {standby.type() == DatabaseType.MYSQL ? "mysql" : "mariadb",
+                    "-uroot", "-p" + standby.password(), "-e",
+                    "CREATE DATABASE `" + dbName + "`; DROP DATABASE " + STANDBY_DB + "; "
+                            + "ALTER USER 'root'@'%' IDENTIFIED BY '" + password + "'; "
+                            + "ALTER USER 'root'@'localhost' IDENTIFIED BY '" + password + "'"};
+            case MONGODB -> new String[] {"mongosh", "--quiet", "-u", "root", "-p", standby.password(),
+                    "--authenticationDatabase", "admin", "--eval",
+                    "db.getSiblingDB('admin').changeUserPassword('root', '" + password + "')"};
+            case REDIS -> throw new IllegalArgumentException("Redis is not pooled");
+        };
+    }
+
+    /**
+     * Runs a command inside the container and returns its exit code
+     */
+    private int exec(DockerClient docker, String containerId, String... command) throws InterruptedException {
+        String execId = docker.execCreateCmd(containerId)
+                .withCmd(command)
+                .withAttachStdout(true)
+                .withAttachStderr(true)
+                .exec()
+                .getId();
+        docker.execStartCmd(execId).exec(new ResultCallback.Adapter<Frame>()).awaitCompletion();
+        Long exitCode = docker.inspectExecCmd(execId).exec().getExitCodeLong();
+        return exitCode != null ? exitCode.intValue() : -1;
+    }
+
+    /**
+     * Removes standby containers that were never claimed, recognised by their name and by a port
+     * that no database owns; claimed containers keep the label but were renamed
+     */
+    private void removeLeftoverStandbys() {
+        try {
+            DockerClient docker = dockerClientFactory.getClient();
+            List<Container> containers = docker.listContainersCmd()
+                    .withShowAll(true)
+                    .withLabelFilter(List.of(STANDBY_LABEL))
+                    .exec();
+
+            List<String> leftovers = new ArrayList<>();
+            for (Container container : containers) {
+                boolean standbyName = container.getNames() != null && container.getNames().length > 0
+                        && container.getNames()[0].startsWith("/" + STANDBY_PREFIX);
+                boolean ownedPort = container.getPorts() != null && List.of(container.getPorts()).stream()
+                        .map(ContainerPort::getPublicPort)
+                        .anyMatch(p -> p != null && portAllocator.isAllocated(p));
+                if (standbyName && !ownedPort) {
+                    leftovers.add(container.getId());
+                }
+            }
+
+            leftovers.forEach(id -> dockerEngine.removeContainer(docker, id));
+            if (!leftovers.isEmpty()) {
+                log.info("Removed {} standby container(s) left over from a previous run", leftovers.size());
+            }
+        } catch (Exception e) {
+            log.warn("Could not clean up leftover standby containers: {}", e.getMessage());
+        }
+    }
+
+    private String key(DatabaseType type, String version) {
+        return configProvider.resolveImage(type, version);
+    }
+
+    private record Standby(String containerId, DatabaseType type, int port, String password) {}
+}
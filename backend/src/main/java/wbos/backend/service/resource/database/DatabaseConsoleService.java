@@ -4,21 +4,37 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.LogContainerCmd;
 import com.github.dockerjava.api.model.Frame;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import wbos.backend.config.DockerClientFactory;
+import wbos.backend.config.EventStreamProperties;
 import wbos.backend.dto.resource.database.ConsoleLogsResponse;
+import wbos.backend.dto.resource.database.ContainerStatsResponse;
 import wbos.backend.enums.DatabaseStatus;
 import wbos.backend.model.resource.database.Database;
 import wbos.backend.repository.resource.database.DatabaseRepository;
+import wbos.backend.service.infrastructure.ContainerStatsSampler;
+import wbos.backend.service.infrastructure.LifecycleMetrics;
+import wbos.backend.service.utlis.logs.LogLineFilter;
+import wbos.backend.service.utlis.logs.LogRingBuffer;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
@@ -27,55 +43,247 @@ public class DatabaseConsoleService {
 
     private final DatabaseRepository databaseRepository;
     private final DockerClientFactory dockerClientFactory;
+    private final EventStreamProperties eventStreamProperties;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final ContainerStatsSampler containerStatsSampler;
 
-    public ConsoleLogsResponse getLogs(Long databaseId, int tail, String filter) {
+    /** Marks the end of the Docker log stream in a follow queue; compared by identity */
+    private static final String END_OF_STREAM = new String("end-of-stream");
+
+    /** Maximum lines sent in one SSE event */
+    private static final int MAX_LINES_PER_EVENT = 256;
+
+    /**
+     * Returns the last {@code tail} log lines of a database container, optionally filtered
+     *
+     * Without a filter Docker is asked for just the tail. With a filter every line in the
+     * since/until window is matched as it arrives and only the last {@code tail} matches are
+     * kept in a fixed-size ring buffer, so memory stays bounded and older matches are not missed.
+     *
+     * @param databaseId The database ID
+     * @param tail Maximum number of lines to return
+     * @param filter Text or regular expression to match, or null for all lines
+     * @param regex Treat the filter as a regular expression
+     * @param ignoreCase Match the filter regardless of case
+     * @param since Only lines written at or after this instant, or null
+     * @param until Only lines written before this instant, or null
+     * @return Matching lines, oldest first
+     */
+    public ConsoleLogsResponse getLogs(Long databaseId, int tail, String filter, boolean regex,
+                                       boolean ignoreCase, Instant since, Instant until) {
         Database database = requireRunning(databaseId);
+        int lines = checkTail(tail);
+
+        if (since != null && until != null && since.isAfter(until)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'since' must not be after 'until'");
+        }
 
-        // Fetch more lines than requested when filtering so we can apply the limit after the filter
-        int fetchLimit = (filter != null && !filter.isBlank()) ? Math.max(tail * 10, 1000) : tail;
+        LogLineFilter lineFilter;
+        try {
+            lineFilter = LogLineFilter.of(filter, regex, ignoreCase);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
 
-        try (DockerClient docker = dockerClientFactory.createClient()) {
-            List<String> allLines = new ArrayList<>();
+        Timer.Sample sample = lifecycleMetrics.start();
+        try {
+            LogRingBuffer matches = new LogRingBuffer(lines);
+            long[] scanned = {0};
 
-            docker.logContainerCmd(database.getContainerId())
+            LogContainerCmd cmd = dockerClientFactory.getClient().logContainerCmd(database.getContainerId())
                     .withStdOut(true)
-                    .withStdErr(true)
-                    .withTail(fetchLimit)
-                    .exec(new ResultCallback.Adapter<>() {
+                    .withStdErr(true);
+            if (lineFilter.isMatchAll()) {
+                cmd.withTail(lines);
+            }
+            if (since != null) {
+                cmd.withSince((int) since.getEpochSecond());
+            }
+            if (until != null) {
+                cmd.withUntil((int) until.getEpochSecond());
+            }
+
+            cmd.exec(new ResultCallback.Adapter<>() {
                         @Override
                         public void onNext(Frame frame) {
-                            if (frame == null || frame.getPayload() == null) return;
-                            String line = new String(frame.getPayload(), StandardCharsets.UTF_8).stripTrailing();
-                            if (!line.isBlank()) {
-                                allLines.add(line);
+                            String line = toLine(frame);
+                            if (line == null) return;
+                            scanned[0]++;
+                            if (lineFilter.matches(line)) {
+                                matches.add(line);
                             }
                         }
                     })
                     .awaitCompletion();
 
-            List<String> filtered = (filter != null && !filter.isBlank())
-                    ? allLines.stream().filter(l -> l.contains(filter)).toList()
-                    : allLines;
-
-            List<String> result = filtered.size() > tail
-                    ? filtered.subList(filtered.size() - tail, filtered.size())
-                    : filtered;
-
-            log.info("Fetched {} log lines for database {} (filter={})", result.size(), databaseId, filter);
-            return ConsoleLogsResponse.of(result);
+            List<String> result = matches.toList();
+            lifecycleMetrics.record(sample, LifecycleMetrics.LOG_FETCH, database.getType(), LifecycleMetrics.SUCCESS);
+            log.info("Fetched {} log lines for database {} (filter={}, scanned={}, matched={})",
+                    result.size(), databaseId, filter, scanned[0], matches.getAdded());
+            return ConsoleLogsResponse.of(result, scanned[0], matches.getAdded());
 
         } catch (Exception e) {
+            lifecycleMetrics.record(sample, LifecycleMetrics.LOG_FETCH, database.getType(), LifecycleMetrics.ERROR);
             log.error("Failed to get logs for database {}: {}", databaseId, e.getMessage());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
                     "Failed to retrieve logs: " + e.getMessage());
         }
     }
 
+    /**
+     * Streams container logs as Server-Sent Events, starting with the last {@code tail} lines
+     *
+     * Frames from the Docker log stream pass through a bounded queue to a sender thread. When the
+     * client falls behind and the queue is full, the Docker callback blocks, which stops reading from
+     * the daemon instead of buffering without limit. Idle periods are filled with heartbeat comments,
+     * and the Docker stream is closed as soon as the client disconnects.
+     *
+     * @param databaseId The database ID
+     * @param tail Number of existing lines to send before following new output
+     * @return SSE stream of "log" events (one or more lines each) ending with an "end" event
+     */
+    public SseEmitter followLogs(Long databaseId, int tail) {
+        Database database = requireRunning(databaseId);
+        int lines = checkTail(tail);
+
+        SseEmitter emitter = new SseEmitter(eventStreamProperties.getEmitterTimeout().toMillis());
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(eventStreamProperties.getLogBufferSize());
+        AtomicBoolean open = new AtomicBoolean(true);
+
+        ResultCallback.Adapter<Frame> callback = new ResultCallback.Adapter<>() {
+            @Override
+            public void onNext(Frame frame) {
+                String line = toLine(frame);
+                if (line != null) {
+                    enqueue(queue, open, line);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (open.get()) {
+                    log.warn("Log stream for database {} failed: {}", databaseId, throwable.getMessage());
+                }
+                enqueue(queue, open, END_OF_STREAM);
+                super.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                enqueue(queue, open, END_OF_STREAM);
+                super.onComplete();
+            }
+        };
+
+        Runnable disconnect = () -> {
+            if (open.compareAndSet(true, false)) {
+                closeQuietly(callback);
+                log.info("Stopped following logs for database {}", databaseId);
+            }
+        };
+        emitter.onCompletion(disconnect);
+        emitter.onTimeout(disconnect);
+        emitter.onError(e -> disconnect.run());
+
+        try {
+            dockerClientFactory.getClient().logContainerCmd(database.getContainerId())
+                    .withStdOut(true)
+                    .withStdErr(true)
+                    .withFollowStream(true)
+                    .withTail(lines)
+                    .exec(callback);
+        } catch (Exception e) {
+            log.error("Failed to follow logs for database {}: {}", databaseId, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to follow logs: " + e.getMessage());
+        }
+
+        Thread.ofVirtual()
+                .name("log-follow-" + databaseId)
+                .start(() -> pumpLogs(databaseId, emitter, queue, open, disconnect));
+
+        log.info("Following logs for database {} (tail={})", databaseId, tail);
+        return emitter;
+    }
+
+    /**
+     * Drains the follow queue into the emitter until either side closes
+     */
+    private void pumpLogs(Long databaseId, SseEmitter emitter, BlockingQueue<String> queue,
+                          AtomicBoolean open, Runnable disconnect) {
+        long heartbeatMillis = eventStreamProperties.getHeartbeatInterval().toMillis();
+        List<String> batch = new ArrayList<>(MAX_LINES_PER_EVENT);
+
+        try {
+            while (open.get()) {
+                String first = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+
+                batch.clear();
+                batch.add(first);
+                queue.drainTo(batch, MAX_LINES_PER_EVENT - 1);
+
+                boolean ended = batch.removeIf(line -> line == END_OF_STREAM);
+                if (!batch.isEmpty()) {
+                    // One data field per line; EventSource joins them back with newlines
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().name("log");
+                    batch.forEach(event::data);
+                    emitter.send(event);
+                }
+                if (ended) {
+                    emitter.send(SseEmitter.event().name("end").data("container log stream closed"));
+                    emitter.complete();
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Log follow client for database {} went away: {}", databaseId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            disconnect.run();
+        }
+    }
+
+    /**
+     * Blocks while the queue is full so a slow client pauses the Docker stream; gives up once closed
+     */
+    private static void enqueue(BlockingQueue<String> queue, AtomicBoolean open, String line) {
+        try {
+            while (open.get() && !queue.offer(line, 1, TimeUnit.SECONDS)) {
+                // client is behind: hold the Docker callback thread until there is room
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(ResultCallback.Adapter<Frame> callback) {
+        try {
+            callback.close();
+        } catch (IOException e) {
+            log.debug("Failed to close Docker log stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes a log frame into a single line, or null for empty frames
+     */
+    private static String toLine(Frame frame) {
+        if (frame == null || frame.getPayload() == null) return null;
+        String line = new String(frame.getPayload(), StandardCharsets.UTF_8).stripTrailing();
+        return line.isBlank() ? null : line;
+    }
+
     public String getInspect(Long databaseId) {
         Database database = requireRunning(databaseId);
 
-        try (DockerClient docker = dockerClientFactory.createClient()) {
-            var inspect = docker.inspectContainerCmd(database.getContainerId()).exec();
+        try {
+            var inspect = lifecycleMetrics.time(LifecycleMetrics.INSPECT, database.getType(),
+                    () -> dockerClientFactory.getClient().inspectContainerCmd(database.getContainerId()).exec());
 
             // InspectContainerResponse has Object-typed fields that vanilla Jackson can't handle;
             // disable FAIL_ON_EMPTY_BEANS so those serialise as {} instead of throwing.
@@ -90,6 +298,36 @@ public class DatabaseConsoleService {
         }
     }
 
+    /**
+     * Returns the sampled CPU, memory, network and block I/O history of a database container
+     *
+     * Available in any status; a database that is not running keeps the history sampled before.
+     *
+     * @param databaseId The database ID
+     * @param since Only points starting at or after this instant, or null for all
+     * @param resolution Only the tier with this resolution, or null for all tiers
+     */
+    public ContainerStatsResponse getStats(Long databaseId, Instant since, Duration resolution) {
+        Database database = databaseRepository.findById(databaseId)
+                .filter(db -> db.getStatus() != DatabaseStatus.DESTROYED)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Database not found: " + databaseId));
+        return containerStatsSampler.getStats(database, since, resolution);
+    }
+
+    /**
+     * Clamps a negative tail to 0 and rejects one above app.events.max-log-tail, which would
+     * otherwise size the ring buffer and the Docker request
+     */
+    private int checkTail(int tail) {
+        int max = eventStreamProperties.getMaxLogTail();
+        if (tail > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "'tail' must not exceed " + max + " (was " + tail + ")");
+        }
+        return Math.max(tail, 0);
+    }
+
     private Database requireRunning(Long databaseId) {
         Database database = databaseRepository.findById(databaseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
@@ -6,15 +6,20 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import wbos.backend.dto.resource.database.DatabaseResponseDto;
 import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.LifecycleOperation;
 import wbos.backend.model.resource.database.Database;
 import wbos.backend.repository.resource.database.DatabaseRepository;
+import wbos.backend.service.infrastructure.ContainerRuntime;
+import wbos.backend.service.infrastructure.LifecycleExecutor;
+import wbos.backend.service.infrastructure.LifecycleMetrics;
+import wbos.backend.service.infrastructure.ReadinessProbe;
 import wbos.backend.service.security.PasswordEncryptionService;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -22,13 +27,18 @@ import java.util.concurrent.CompletableFuture;
 public class DatabaseControlService {
 
     private final DatabaseRepository databaseRepository;
+    private final LifecycleExecutor lifecycleExecutor;
+    private final ContainerRuntime containerRuntime;
+    private final DatabaseResponseMapper responseMapper;
+    private final ReadinessProbe readinessProbe;
     private final PasswordEncryptionService passwordEncryptionService;
+    private final LifecycleMetrics lifecycleMetrics;
 
     /**
      * Stops a running database container
      */
     @Transactional
-    public ResponseEntity<DatabaseResponseDto> stopDatabase(Long databaseId) {
+    public ResponseEntity<DatabaseResponseDto> stopDatabase(Long databaseId, boolean includePassword) {
         log.info("Stopping database with ID: {}", databaseId);
 
         try {
@@ -50,17 +60,19 @@ public class DatabaseControlService {
             database.setStatus(DatabaseStatus.STOPPING);
             database = databaseRepository.save(database);
 
-            DatabaseResponseDto responseDto = convertToDto(database);
+            DatabaseResponseDto responseDto = responseMapper.toDto(database, includePassword);
 
             // Execute docker stop asynchronously
             final Long dbId = database.getId();
             final String containerId = database.getContainerId();
             final String dbName = database.getName();
+            final DatabaseType dbType = database.getType();
 
-            CompletableFuture.runAsync(() -> {
+            lifecycleExecutor.submit(LifecycleOperation.CONTROL, () -> {
                 try {
                     log.info("Executing docker stop for container: {}", containerId);
-                    boolean success = executeDockerCommand("stop", containerId);
+                    boolean success = lifecycleMetrics.timeCheck(LifecycleMetrics.DOCKER_STOP, dbType,
+                            () -> containerRuntime.stop(containerId));
 
                     Database db = databaseRepository.findById(dbId).orElse(null);
                     if (db == null) {
@@ -91,6 +103,10 @@ public class DatabaseControlService {
         } catch (IllegalArgumentException e) {
             log.error("Database not found: {}", databaseId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, rejecting stop of database: {}", databaseId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             log.error("Failed to stop database: {}", databaseId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -101,7 +117,7 @@ public class DatabaseControlService {
      * Starts a stopped database container
      */
     @Transactional
-    public ResponseEntity<DatabaseResponseDto> startDatabase(Long databaseId) {
+    public ResponseEntity<DatabaseResponseDto> startDatabase(Long databaseId, boolean includePassword) {
         log.info("Starting database with ID: {}", databaseId);
 
         try {
@@ -123,17 +139,28 @@ public class DatabaseControlService {
             database.setStatus(DatabaseStatus.STARTING);
             database = databaseRepository.save(database);
 
-            DatabaseResponseDto responseDto = convertToDto(database);
+            DatabaseResponseDto responseDto = responseMapper.toDto(database, includePassword);
 
             // Execute docker start asynchronously
             final Long dbId = database.getId();
             final String containerId = database.getContainerId();
             final String dbName = database.getName();
+            final String engineDatabaseName = database.engineDatabaseName();
+            final DatabaseType dbType = database.getType();
+            final Integer dbPort = database.getPort();
+            final String encryptedPassword = database.getEncryptedPassword();
 
-            CompletableFuture.runAsync(() -> {
+            lifecycleExecutor.submit(LifecycleOperation.CONTROL, () -> {
+                final long startedAt = System.nanoTime();
                 try {
                     log.info("Executing docker start for container: {}", containerId);
-                    boolean success = executeDockerCommand("start", containerId);
+                    boolean success = lifecycleMetrics.timeCheck(LifecycleMetrics.DOCKER_START, dbType,
+                            () -> containerRuntime.start(containerId));
+
+                    // Stays STARTING until the engine accepts connections
+                    boolean ready = success && readinessProbe.awaitReady(LifecycleOperation.CONTROL, dbType, dbPort,
+                            encryptedPassword != null ? passwordEncryptionService.decrypt(encryptedPassword) : null,
+                            engineDatabaseName, startedAt);
 
                     Database db = databaseRepository.findById(dbId).orElse(null);
                     if (db == null) {
@@ -141,16 +168,28 @@ public class DatabaseControlService {
                         return;
                     }
 
-                    if (success) {
+                    if (ready) {
                         db.setStatus(DatabaseStatus.RUNNING);
                         databaseRepository.save(db);
                         log.info("Database started successfully: {}", dbName);
+                    } else if (success) {
+                        // A FAILED row never has a running container, so nothing is left that stop could not reach
+                        if (!containerRuntime.stop(containerId)) {
+                            log.warn("Failed to stop container {} of database {} after readiness timeout",
+                                    containerId, dbName);
+                        }
+                        db.setStatus(DatabaseStatus.FAILED);
+                        databaseRepository.save(db);
+                        log.error("Database {} started but did not accept connections in time", dbName);
                     } else {
                         db.setStatus(DatabaseStatus.STOPPED);
                         databaseRepository.save(db);
                         log.error("Failed to start database: {}", dbName);
                     }
                 } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
                     log.error("Exception during database start: {}", dbName, e);
                     databaseRepository.findById(dbId).ifPresent(db -> {
                         db.setStatus(DatabaseStatus.STOPPED);
@@ -164,71 +203,13 @@ public class DatabaseControlService {
         } catch (IllegalArgumentException e) {
             log.error("Database not found: {}", databaseId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, rejecting start of database: {}", databaseId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             log.error("Failed to start database: {}", databaseId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-
-    /**
-     * Executes a docker command
-     */
-    private boolean executeDockerCommand(String command, String containerId) {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("docker", command, containerId);
-            pb.redirectErrorStream(true);
-
-            log.info("Executing: docker {} {}", command, containerId);
-
-            Process process = pb.start();
-
-            // Read output
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    log.debug("Docker: {}", line);
-                }
-            }
-
-            int exitCode = process.waitFor();
-            log.info("Docker {} command completed with exit code: {}", command, exitCode);
-
-            return exitCode == 0;
-
-        } catch (Exception e) {
-            log.error("Failed to execute docker {} command", command, e);
-            return false;
-        }
-    }
-
-    /**
-     * Converts Database entity to DatabaseResponseDto
-     */
-    private DatabaseResponseDto convertToDto(Database database) {
-        // Decrypt password if present
-        String decryptedPassword = null;
-        if (database.getEncryptedPassword() != null) {
-            try {
-                decryptedPassword = passwordEncryptionService.decrypt(database.getEncryptedPassword());
-            } catch (Exception e) {
-                log.warn("Failed to decrypt password for database: {}", database.getId());
-            }
-        }
-
-        return DatabaseResponseDto.builder()
-                .id(database.getId())
-                .name(database.getName())
-                .type(database.getType())
-                .version(database.getVersion())
-                .containerId(database.getContainerId())
-                .status(database.getStatus().name())
-                .port(database.getPort())
-                .connectionString(database.getConnectionString())
-                .password(decryptedPassword)
-                .terraformStatePath(database.getTerraformStatePath())
-                .createdAt(database.getCreatedAt())
-                .updatedAt(database.getUpdatedAt())
-                .build();
-    }
 }
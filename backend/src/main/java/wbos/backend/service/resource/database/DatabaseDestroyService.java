@@ -6,15 +6,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import wbos.backend.dto.resource.database.DatabaseResponseDto;
 import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.LifecycleOperation;
 import wbos.backend.model.resource.database.Database;
 import wbos.backend.repository.resource.database.DatabaseRepository;
-import wbos.backend.service.infrastructure.TerraformService;
+import wbos.backend.service.infrastructure.LifecycleExecutor;
+import wbos.backend.service.infrastructure.LifecycleMetrics;
+import wbos.backend.service.infrastructure.PortAllocator;
+import wbos.backend.service.infrastructure.ProvisioningEngine;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -22,7 +28,11 @@ import java.util.concurrent.CompletableFuture;
 public class DatabaseDestroyService {
 
     private final DatabaseRepository databaseRepository;
-    private final TerraformService terraformService;
+    private final LifecycleExecutor lifecycleExecutor;
+    private final ProvisioningEngine provisioningEngine;
+    private final PortAllocator portAllocator;
+    private final DatabaseResponseMapper responseMapper;
+    private final LifecycleMetrics lifecycleMetrics;
 
     /**
      * Destroys a PostgreSQL database
@@ -47,22 +57,24 @@ public class DatabaseDestroyService {
             log.info("Database marked as DESTROYING: {}", database.getName());
 
             // Convert to DTO for immediate response
-            DatabaseResponseDto responseDto = convertToDto(database);
+            DatabaseResponseDto responseDto = responseMapper.toDto(database);
 
-            // Execute Terraform destroy asynchronously
+            // Execute destroy asynchronously
             final Long dbId = database.getId();
             final String dbName = database.getName();
+            final DatabaseType dbType = database.getType();
             final String terraformPath = database.getTerraformStatePath();
 
-            CompletableFuture.runAsync(() -> {
+            lifecycleExecutor.submit(LifecycleOperation.DESTROY, () -> {
                 try {
-                    log.info("Starting async Terraform destroy for: {}", dbName);
+                    log.info("Starting async destroy for: {}", dbName);
 
                     // Get Terraform working directory
                     Path workingDir = Paths.get(terraformPath);
 
-                    // Execute Terraform destroy
-                    boolean success = terraformService.destroyPostgres(workingDir);
+                    // Execute provisioning engine destroy
+                    boolean success = lifecycleMetrics.timeCheck(LifecycleMetrics.DESTROY, dbType,
+                            () -> provisioningEngine.destroyDatabase(dbName, workingDir));
 
                     // Fetch database from repository
                     Database db = databaseRepository.findById(dbId).orElse(null);
@@ -75,6 +87,9 @@ public class DatabaseDestroyService {
                         // Mark as destroyed
                         db.setStatus(DatabaseStatus.DESTROYED);
                         databaseRepository.save(db);
+                        if (db.getPort() != null) {
+                            portAllocator.release(db.getPort());
+                        }
                         log.info("Database destroyed successfully: {}", db.getName());
 
                     } else {
@@ -100,28 +115,14 @@ public class DatabaseDestroyService {
             log.error("Database not found: {}", databaseId);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, rejecting destruction of database: {}", databaseId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
         } catch (Exception e) {
             log.error("Failed to initiate database destruction: {}", databaseId, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-
-    /**
-     * Converts Database entity to DatabaseResponseDto
-     */
-    private DatabaseResponseDto convertToDto(Database database) {
-        return DatabaseResponseDto.builder()
-                .id(database.getId())
-                .name(database.getName())
-                .type(database.getType())
-                .version(database.getVersion())
-                .containerId(database.getContainerId())
-                .status(database.getStatus().name())
-                .port(database.getPort())
-                .connectionString(database.getConnectionString())
-                .terraformStatePath(database.getTerraformStatePath())
-                .createdAt(database.getCreatedAt())
-                .updatedAt(database.getUpdatedAt())
-                .build();
-    }
 }
@@ -2,14 +2,29 @@ package wbos.backend.service.resource.database;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import wbos.backend.dto.resource.database.DatabaseCredentialsDto;
+import wbos.backend.dto.resource.database.DatabaseListRequestDto;
 import wbos.backend.dto.resource.database.DatabaseResponseDto;
+import wbos.backend.enums.DatabaseStatus;
 import wbos.backend.model.resource.database.Database;
+import wbos.backend.records.DatabaseListVersion;
 import wbos.backend.repository.resource.database.DatabaseRepository;
+import wbos.backend.repository.resource.database.DatabaseSpecifications;
 
+import java.time.Duration;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -18,44 +33,182 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DatabaseDetailsService {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String PAGE_NUMBER_HEADER = "X-Page-Number";
+    private static final String PAGE_SIZE_HEADER = "X-Page-Size";
+    private static final String WATERMARK_HEADER = "X-Sync-Watermark";
+    private static final Duration WATERMARK_OVERLAP = Duration.ofSeconds(5);
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("name", "type", "status", "port", "createdAt", "updatedAt");
+
     private final DatabaseRepository databaseRepository;
+    private final DatabaseResponseMapper responseMapper;
 
     /**
-     * Resync and fetch all active database instances
+     * Resync and fetch database instances
+     *
+     * Returns databases matching the status, type and name-prefix filters (by default every
+     * database that is not DESTROYED), sorted server-side. When page or size is given only that
+     * page is loaded; X-Total-Count, X-Page-Number and X-Page-Size describe the result.
      *
-     * Returns all databases that are not in DESTROYED status.
-     * This allows the frontend to display current database state.
+     * With changedSince only rows updated at or after the watermark are returned, and rows that
+     * became DESTROYED come back as tombstones (id, name, status and updatedAt only). Every response
+     * carries X-Sync-Watermark for the next delta call, and an ETag derived from the table's row count
+     * and latest update, so an If-None-Match that still matches is answered with 304 before any rows
+     * are loaded.
      *
-     * @return ResponseEntity containing list of active databases
+     * @param request Filters, sort, paging and delta watermark
+     * @param ifNoneMatch If-None-Match request header, or null
+     * @return ResponseEntity containing the matching databases
      */
-    public ResponseEntity<List<DatabaseResponseDto>> resync() {
-        log.info("Fetching all active database instances");
+    public ResponseEntity<List<DatabaseResponseDto>> resync(DatabaseListRequestDto request, String ifNoneMatch) {
+        log.info("Fetching database instances (status={}, type={}, name={}, page={}, size={}, sort={})",
+                request.getStatus(), request.getType(), request.getName(),
+                request.getPage(), request.getSize(), request.getSort());
+
+        Sort sort;
+        try {
+            sort = parseSort(request.getSort());
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected database list request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        // One aggregate query decides whether anything changed since the client's copy
+        DatabaseListVersion version = databaseRepository.findListVersion();
+        String eTag = toETag(version);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setCacheControl(CacheControl.noCache());
+        if (version.lastUpdatedAt() != null) {
+            // Overlap so rows committed slightly out of timestamp order are not skipped; clients upsert by id
+            headers.set(WATERMARK_HEADER, version.lastUpdatedAt().minus(WATERMARK_OVERLAP).toString());
+        }
+
+        if (matchesETag(ifNoneMatch, eTag)) {
+            log.info("Database list unchanged ({}), returning 304", eTag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        boolean delta = request.getChangedSince() != null;
+        Specification<Database> spec = Specification
+                .where(delta
+                        ? DatabaseSpecifications.changedSince(request.getChangedSince(), request.getStatus())
+                        : DatabaseSpecifications.statusIn(request.getStatus()))
+                .and(DatabaseSpecifications.typeIn(request.getType()))
+                .and(DatabaseSpecifications.nameStartsWith(request.getName()));
+
+        List<Database> databases;
 
-        List<Database> activeDatabases = databaseRepository.findAllActiveDatabase();
+        if (request.getPage() == null && request.getSize() == null) {
+            databases = databaseRepository.findAll(spec, sort);
+            headers.set(TOTAL_COUNT_HEADER, String.valueOf(databases.size()));
+        } else {
+            int pageNumber = request.getPage() != null ? request.getPage() : 0;
+            int pageSize = request.getSize() != null ? request.getSize() : DEFAULT_PAGE_SIZE;
+            Page<Database> page = databaseRepository.findAll(spec, PageRequest.of(pageNumber, pageSize, sort));
+            databases = page.getContent();
+            headers.set(TOTAL_COUNT_HEADER, String.valueOf(page.getTotalElements()));
+            headers.set(PAGE_NUMBER_HEADER, String.valueOf(pageNumber));
+            headers.set(PAGE_SIZE_HEADER, String.valueOf(pageSize));
+        }
 
-        log.info("Found {} active database instance(s)", activeDatabases.size());
+        log.info("Found {} database instance(s){}", databases.size(),
+                delta ? " changed since " + request.getChangedSince() : "");
 
-        List<DatabaseResponseDto> responseDtos = activeDatabases.stream()
-                .map(this::mapToResponseDto)
+        List<DatabaseResponseDto> responseDtos = databases.stream()
+                .map(db -> db.getStatus() == DatabaseStatus.DESTROYED ? mapToTombstone(db) : responseMapper.toDto(db))
                 .collect(Collectors.toList());
 
-        return ResponseEntity.status(HttpStatus.OK).body(responseDtos);
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(responseDtos);
+    }
+
+    /**
+     * Returns the connection credentials of a database
+     *
+     * This is the only response that decrypts a password unless a mutation is called with
+     * includePassword=true. The response is marked no-store so it is never cached.
+     *
+     * @param databaseId The database ID
+     * @return ResponseEntity with the credentials, 404 if unknown or destroyed,
+     *         409 if the database has not finished provisioning
+     */
+    public ResponseEntity<DatabaseCredentialsDto> getCredentials(Long databaseId) {
+        Optional<Database> databaseOpt = databaseRepository.findById(databaseId)
+                .filter(db -> db.getStatus() != DatabaseStatus.DESTROYED);
+        if (databaseOpt.isEmpty()) {
+            log.warn("Credentials requested for unknown database: {}", databaseId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        Database database = databaseOpt.get();
+        if (database.getEncryptedPassword() == null) {
+            log.info("Credentials for database {} are not available yet (status: {})", databaseId, database.getStatus());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .cacheControl(CacheControl.noStore())
+                .body(responseMapper.toCredentials(database));
+    }
+
+    /**
+     * Weak ETag over the whole table: any insert or update changes the count or the latest updatedAt
+     */
+    private String toETag(DatabaseListVersion version) {
+        long lastUpdated = version.lastUpdatedAt() != null
+                ? version.lastUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() * 1000
+                        + version.lastUpdatedAt().getNano() / 1000 % 1000
+                : 0;
+        return "W/\"" + version.count() + "-" + Long.toString(lastUpdated, 36) + "\"";
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaque = eTag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(opaque) || value.equals("*")) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    /**
+     * Parses "field" or "field,asc|desc" into a Sort, with id as a tiebreaker for stable paging
+     */
+    private Sort parseSort(String sortParam) {
+        if (sortParam == null || sortParam.isBlank()) {
+            return Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        }
 
-    private DatabaseResponseDto mapToResponseDto(Database database) {
+        String[] parts = sortParam.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException("Unsupported sort property: " + property);
+        }
+        Sort.Direction direction = parts.length > 1
+                ? Sort.Direction.fromString(parts[1].trim())
+                : Sort.Direction.ASC;
+
+        return Sort.by(new Sort.Order(direction, property), new Sort.Order(direction, "id"));
+    }
+
+    /**
+     * Minimal entry telling delta-sync clients to drop a destroyed database
+     */
+    private DatabaseResponseDto mapToTombstone(Database database) {
         return DatabaseResponseDto.builder()
                 .id(database.getId())
                 .name(database.getName())
-                .type(database.getType())
-                .version(database.getVersion())
-                .memoryMb(database.getMemoryMb())
-                .containerId(database.getContainerId())
                 .status(database.getStatus().name())
-                .port(database.getPort())
-                .connectionString(database.getConnectionString())
-                .terraformStatePath(database.getTerraformStatePath())
-                .createdAt(database.getCreatedAt())
                 .updatedAt(database.getUpdatedAt())
                 .build();
     }
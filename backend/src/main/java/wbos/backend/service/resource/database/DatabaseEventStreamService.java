@@ -0,0 +1,204 @@
+package wbos.backend.service.resource.database;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import wbos.backend.config.EventStreamProperties;
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.records.DatabaseStatusEvent;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes database status changes to connected clients as Server-Sent Events
+ *
+ * Status changes are picked up from DatabaseStatusEvent after the saving transaction commits;
+ * saves that leave the status unchanged are not forwarded. Every event gets an id of the form
+ * {@code <bootId>-<sequence>} and the most recent ones are kept in a bounded history, so a client
+ * reconnecting with Last-Event-ID receives exactly what it missed. When the requested id is no
+ * longer in the history, or comes from an earlier run of the application, a single
+ * {@code resync} event tells the client to reload the full list instead.
+ *
+ * Deduplication, sequencing and queueing happen under one lock, so every client receives the
+ * events of a database in commit order. Each client has its own bounded queue drained by its own
+ * virtual thread, which also sends heartbeats while idle; the committing thread never writes to a
+ * connection. A client that falls a full history behind is disconnected and catches up through
+ * Last-Event-ID when it reconnects.
+ */
+@Service
+@Slf4j
+public class DatabaseEventStreamService {
+
+    private static final String STATUS_EVENT = "status";
+    private static final String RESYNC_EVENT = "resync";
+
+    private final EventStreamProperties properties;
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final Map<Long, DatabaseStatus> lastStatus = new HashMap<>();
+    private final Deque<StoredEvent> history = new ArrayDeque<>();
+    private long sequence;
+
+    public DatabaseEventStreamService(EventStreamProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Opens a new event stream, replaying events after the given id first
+     *
+     * @param lastEventId Value of the Last-Event-ID header, or null for a fresh connection
+     * @return Emitter bound to the request
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        // Room for a full replay plus as many new events before the client counts as too slow
+        Client client = new Client(emitter, new ArrayBlockingQueue<>(Math.max(properties.getHistorySize(), 1) * 2));
+        emitter.onCompletion(() -> close(client));
+        emitter.onTimeout(() -> close(client));
+        emitter.onError(e -> close(client));
+
+        // Replay and registration happen under the same lock as publishing, so no event is missed or sent twice
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(client, lastEventId.trim());
+            }
+            clients.add(client);
+        }
+
+        Thread.ofVirtual().name("status-events").start(() -> pump(client));
+        log.debug("Status event stream opened ({} client(s), last event: {})", clients.size(), lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Queues a saved database row for all clients if its status changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDatabaseSaved(DatabaseStatusEvent event) {
+        if (event.id() == null || event.status() == null) {
+            return;
+        }
+
+        synchronized (this) {
+            // Destroyed rows are final; forgetting them keeps the map at the number of live databases
+            DatabaseStatus previous = event.status() == DatabaseStatus.DESTROYED
+                    ? lastStatus.remove(event.id())
+                    : lastStatus.put(event.id(), event.status());
+            if (previous == event.status()) {
+                return;
+            }
+
+            StoredEvent stored = new StoredEvent(++sequence, event);
+            history.addLast(stored);
+            while (history.size() > properties.getHistorySize()) {
+                history.removeFirst();
+            }
+            for (Client client : clients) {
+                enqueue(client, statusEvent(stored));
+            }
+        }
+    }
+
+    /**
+     * Sends a client's queued events in order until it disconnects, with heartbeats while idle
+     */
+    private void pump(Client client) {
+        long heartbeatMillis = properties.getHeartbeatInterval().toMillis();
+        try {
+            while (client.open().get()) {
+                SseEmitter.SseEventBuilder event = client.queue().poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                client.emitter().send(event != null ? event : SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Status event client went away: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(client);
+        }
+    }
+
+    private void enqueue(Client client, SseEmitter.SseEventBuilder event) {
+        if (!client.queue().offer(event)) {
+            log.warn("Status event client fell {} events behind, disconnecting it", client.queue().size());
+            close(client);
+            client.emitter().complete();
+        }
+    }
+
+    private void close(Client client) {
+        client.open().set(false);
+        clients.remove(client);
+    }
+
+    private void replay(Client client, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        StoredEvent oldest = history.peekFirst();
+
+        boolean gap = lastSequence < 0
+                || lastSequence > sequence
+                || (oldest != null && lastSequence < oldest.sequence() - 1)
+                || (oldest == null && lastSequence < sequence);
+        if (gap) {
+            enqueue(client, SseEmitter.event()
+                    .id(eventId(sequence))
+                    .name(RESYNC_EVENT)
+                    .data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+
+        for (StoredEvent stored : history) {
+            if (stored.sequence() > lastSequence) {
+                enqueue(client, statusEvent(stored));
+            }
+        }
+    }
+
+    /**
+     * Returns the sequence number of an id issued by this run of the application, or -1
+     */
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(bootId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private SseEmitter.SseEventBuilder statusEvent(StoredEvent stored) {
+        return SseEmitter.event()
+                .id(eventId(stored.sequence()))
+                .name(STATUS_EVENT)
+                .data(stored.event(), MediaType.APPLICATION_JSON);
+    }
+
+    private String eventId(long sequence) {
+        return bootId + "-" + sequence;
+    }
+
+    private record StoredEvent(long sequence, DatabaseStatusEvent event) {}
+
+    private record Client(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue, AtomicBoolean open) {
+
+        Client(SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> queue) {
+            this(emitter, queue, new AtomicBoolean(true));
+        }
+    }
+}
@@ -1,23 +1,49 @@
 package wbos.backend.service.resource.database;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import wbos.backend.config.ProvisioningProperties;
+import wbos.backend.config.TerraformProperties;
+import wbos.backend.dto.resource.database.BatchProvisionItemDto;
+import wbos.backend.dto.resource.database.BatchProvisionResponseDto;
 import wbos.backend.dto.resource.database.CreateDataBaseRequestDto;
 import wbos.backend.dto.resource.database.DatabaseResponseDto;
 import wbos.backend.enums.DatabaseStatus;
 import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.LifecycleOperation;
+import wbos.backend.enums.OperationPhase;
 import wbos.backend.model.resource.database.Database;
+import wbos.backend.records.ContainerSpec;
 import wbos.backend.records.TerraformResult;
+import wbos.backend.repository.resource.database.DatabaseBatchRepository;
 import wbos.backend.repository.resource.database.DatabaseRepository;
+import wbos.backend.service.infrastructure.ContainerRuntime;
 import wbos.backend.service.infrastructure.DatabaseConfigProvider;
-import wbos.backend.service.infrastructure.TerraformService;
+import wbos.backend.service.infrastructure.ImageCacheService;
+import wbos.backend.service.infrastructure.LifecycleExecutor;
+import wbos.backend.service.infrastructure.LifecycleMetrics;
+import wbos.backend.service.infrastructure.OperationTracker;
+import wbos.backend.service.infrastructure.PortAllocator;
+import wbos.backend.service.infrastructure.ProvisioningEngine;
+import wbos.backend.service.infrastructure.ReadinessProbe;
+import wbos.backend.service.infrastructure.WarmPoolService;
 import wbos.backend.service.security.PasswordEncryptionService;
 
-import java.util.concurrent.CompletableFuture;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,25 +51,64 @@ import java.util.concurrent.CompletableFuture;
 public class DatabaseProvisionService {
 
     private final DatabaseRepository databaseRepository;
-    private final TerraformService terraformService;
+    private final DatabaseBatchRepository databaseBatchRepository;
+    private final LifecycleExecutor lifecycleExecutor;
+    private final ProvisioningEngine provisioningEngine;
+    private final ContainerRuntime containerRuntime;
     private final PasswordEncryptionService passwordEncryptionService;
+    private final TerraformProperties terraformProperties;
+    private final ProvisioningProperties provisioningProperties;
+    private final PortAllocator portAllocator;
     private final DatabaseConfigProvider configProvider;
+    private final DatabaseResponseMapper responseMapper;
+    private final Optional<WarmPoolService> warmPool;
+    private final ImageCacheService imageCache;
+    private final ReadinessProbe readinessProbe;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final OperationTracker operationTracker;
 
     /**
      * Provisions a new PostgreSQL database
      *
      * @param requestDto The database creation request
+     * @param includePassword Include the decrypted password in the response
      * @return ResponseEntity with database details
      */
     @Transactional
-    public ResponseEntity<DatabaseResponseDto> provision(CreateDataBaseRequestDto requestDto) {
+    public ResponseEntity<DatabaseResponseDto> provision(CreateDataBaseRequestDto requestDto, boolean includePassword) {
         log.info("Starting database provisioning for: {}", requestDto.getName());
 
+        // Reserve the provided port, take over a warm standby container, or allocate the next free port for this type
+        Timer.Sample portSample = lifecycleMetrics.start();
+        Integer assignedPort;
+        OptionalInt standbyPort = requestDto.getPort() == null
+                ? warmPool.map(pool -> pool.reserve(requestDto.getType(), requestDto.getVersion())).orElse(OptionalInt.empty())
+                : OptionalInt.empty();
+        if (requestDto.getPort() != null) {
+            if (!portAllocator.reserve(requestDto.getPort())) {
+                lifecycleMetrics.record(portSample, LifecycleMetrics.PORT_ALLOCATION, requestDto.getType(), LifecycleMetrics.FAILURE);
+                log.warn("Port {} was taken concurrently, rejecting database: {}", requestDto.getPort(), requestDto.getName());
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            assignedPort = requestDto.getPort();
+        } else if (standbyPort.isPresent()) {
+            // The pool takes the standby and its port back if this transaction rolls back
+            assignedPort = standbyPort.getAsInt();
+        } else {
+            try {
+                assignedPort = portAllocator.allocate(requestDto.getType());
+            } catch (IllegalStateException e) {
+                lifecycleMetrics.record(portSample, LifecycleMetrics.PORT_ALLOCATION, requestDto.getType(), LifecycleMetrics.FAILURE);
+                log.error("Cannot provision database {}: {}", requestDto.getName(), e.getMessage());
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        }
+        lifecycleMetrics.record(portSample, LifecycleMetrics.PORT_ALLOCATION, requestDto.getType(), LifecycleMetrics.SUCCESS);
+        if (standbyPort.isEmpty()) {
+            portAllocator.releaseOnRollback(assignedPort);
+        }
+
         try {
-            // Use provided port or find next available port
-            Integer assignedPort = requestDto.getPort() != null
-                    ? requestDto.getPort()
-                    : findNextAvailablePort(requestDto.getType());
 
             log.info("Assigned port {} to database {} (user-provided: {})",
                     assignedPort,
@@ -58,7 +123,7 @@ public class DatabaseProvisionService {
                     .memoryMb(requestDto.getMemoryMb())
                     .status(DatabaseStatus.PROVISIONING)
                     .port(assignedPort)
-                    .terraformStatePath(String.format("/tmp/terraform/%s", requestDto.getName()))
+                    .terraformStatePath(Paths.get(terraformProperties.getBaseDir(), requestDto.getName()).toString())
                     .build();
 
             // Save to database
@@ -66,140 +131,284 @@ public class DatabaseProvisionService {
             log.info("Database metadata saved with ID: {}", savedDatabase.getId());
 
             // Convert to DTO for immediate response
-            DatabaseResponseDto responseDto = convertToDto(savedDatabase);
-
-            // Execute Terraform provisioning asynchronously
-            final Long dbId = savedDatabase.getId();
-            final String dbName = savedDatabase.getName();
-            final DatabaseType dbType = savedDatabase.getType();
-            final Integer dbPort = savedDatabase.getPort();
-            final String dbVersion = savedDatabase.getVersion();
-            final Integer dbMemoryMb = savedDatabase.getMemoryMb();
-
-            CompletableFuture.runAsync(() -> {
-                try {
-                    log.info("Starting async Terraform provisioning for: {} (type: {}, version: {}, memory: {}MB)",
-                            dbName, dbType, dbVersion, dbMemoryMb != null ? dbMemoryMb : "unlimited");
-
-                    // Execute Terraform
-                    TerraformResult result = terraformService.provisionDatabase(
-                            dbName,
-                            dbType,
-                            dbPort,
-                            dbVersion,
-                            dbMemoryMb
-                    );
-
-                    // Fetch database from repository
-                    Database db = databaseRepository.findById(dbId).orElse(null);
-                    if (db == null) {
-                        log.error("Database not found: {}", dbId);
-                        return;
-                    }
-
-                    if (result.success()) {
-                        // Update database with connection details
-                        db.setConnectionString(result.connectionString());
-                        db.setContainerId(result.containerId());
-                        db.setStatus(DatabaseStatus.RUNNING);
-
-                        // Encrypt and store password
-                        String encryptedPassword = passwordEncryptionService.encrypt(result.password());
-                        db.setEncryptedPassword(encryptedPassword);
+            DatabaseResponseDto responseDto = responseMapper.toDto(savedDatabase, includePassword);
+            String operationId = operationTracker.begin(LifecycleOperation.PROVISION, savedDatabase.getId(), savedDatabase.getName());
+            responseDto.setOperationId(operationId);
 
-                        db.setTerraformStatePath(
-                                result.workingDirectory() != null
-                                        ? result.workingDirectory().toString()
-                                        : db.getTerraformStatePath()
-                        );
-
-                        databaseRepository.save(db);
-                        log.info("Database provisioned successfully: {} (container: {})",
-                                db.getName(),
-                                result.containerId());
-
-                    } else {
-                        db.setStatus(DatabaseStatus.FAILED);
-                        databaseRepository.save(db);
-                        log.error("Database provisioning failed: {} - {}",
-                                db.getName(),
-                                result.errorMessage());
-                    }
-
-                } catch (Exception e) {
-                    log.error("Exception during database provisioning: {}", dbName, e);
-                    databaseRepository.findById(dbId).ifPresent(db -> {
-                        db.setStatus(DatabaseStatus.FAILED);
-                        databaseRepository.save(db);
-                    });
-                }
-            });
+            // Execute provisioning asynchronously
+            lifecycleExecutor.submit(LifecycleOperation.PROVISION,
+                    operationTracker.bind(operationId, () -> executeProvisioning(savedDatabase)));
 
             log.info("Database provisioning initiated successfully: {}", database.getName());
             return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
 
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, rejecting provisioning of database: {}", requestDto.getName());
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
         } catch (Exception e) {
             log.error("Failed to provision database: {}", requestDto.getName(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
     /**
-     * Finds the next available port for a new database
-     * Uses type-specific default port as starting point
+     * Provisions several databases from one request
+     *
+     * Explicit ports are reserved and the rest allocated from the in-memory port allocator,
+     * all rows are inserted with one JDBC batch, and provisioning fans out over at most
+     * app.provisioning.batch.max-parallel lanes that each work through their items in order.
      *
-     * @param type The database type
-     * @return Next available port number
+     * @param requests The database creation requests, in submission order
+     * @param validationErrors Rejection reason per request index from batch validation
+     * @param includePassword Include decrypted passwords in the response
+     * @return ResponseEntity with a result for every request
      */
-    private Integer findNextAvailablePort(DatabaseType type) {
-        Integer defaultPort = configProvider.getDefaultStartPort(type);
-        Integer maxPort = databaseRepository.findMaxPort();
+    @Transactional
+    public ResponseEntity<BatchProvisionResponseDto> provisionBatch(List<CreateDataBaseRequestDto> requests,
+                                                                    Map<Integer, String> validationErrors,
+                                                                    boolean includePassword) {
+        log.info("Starting batch provisioning for {} database(s)", requests.size());
 
-        // If no databases exist, use the default port for this type
-        if (maxPort == null) {
-            return defaultPort;
+        if (requests.size() > provisioningProperties.getBatch().getMaxSize()) {
+            log.warn("Batch of {} exceeds the maximum of {}", requests.size(), provisioningProperties.getBatch().getMaxSize());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
 
-        // If max port is less than default, use default
-        if (maxPort < defaultPort) {
-            return defaultPort;
-        }
+        Map<Integer, String> errors = new HashMap<>(validationErrors);
+
+        try {
+            // Reserve explicit ports first so auto-allocated ones cannot take them
+            for (int i = 0; i < requests.size(); i++) {
+                Integer port = errors.containsKey(i) ? null : requests.get(i).getPort();
+                if (port != null) {
+                    if (portAllocator.reserve(port)) {
+                        portAllocator.releaseOnRollback(port);
+                    } else {
+                        errors.put(i, "Port " + port + " is already in use");
+                    }
+                }
+            }
+
+            List<Integer> acceptedIndexes = IntStream.range(0, requests.size())
+                    .filter(i -> !errors.containsKey(i))
+                    .boxed()
+                    .toList();
+
+            List<Database> newDatabases = new ArrayList<>();
+            for (Integer index : acceptedIndexes) {
+                CreateDataBaseRequestDto request = requests.get(index);
+                Integer assignedPort = request.getPort();
+                if (assignedPort == null) {
+                    try {
+                        assignedPort = portAllocator.allocate(request.getType());
+                    } catch (IllegalStateException e) {
+                        // Range exhausted: reject this item, the rest of the batch goes ahead
+                        log.warn("Batch item {} rejected: {}", index, e.getMessage());
+                        errors.put(index, e.getMessage());
+                        continue;
+                    }
+                    portAllocator.releaseOnRollback(assignedPort);
+                }
+
+                newDatabases.add(Database.builder()
+                        .name(request.getName())
+                        .type(request.getType())
+                        .version(request.getVersion())
+                        .memoryMb(request.getMemoryMb())
+                        .status(DatabaseStatus.PROVISIONING)
+                        .port(assignedPort)
+                        .terraformStatePath(Paths.get(terraformProperties.getBaseDir(), request.getName()).toString())
+                        .build());
+            }
+
+            Map<Long, Database> savedById = new HashMap<>();
+            List<Long> ids = List.of();
+            if (!newDatabases.isEmpty()) {
+                ids = databaseBatchRepository.insertAll(newDatabases);
+                databaseRepository.findAllById(ids).forEach(db -> savedById.put(db.getId(), db));
+                log.info("Inserted {} database row(s) in one batch", ids.size());
+            }
+            Map<Long, String> operationIds = new HashMap<>();
+            for (Database saved : savedById.values()) {
+                operationIds.put(saved.getId(), operationTracker.begin(LifecycleOperation.PROVISION, saved.getId(), saved.getName()));
+            }
+
+            // Fan out provisioning over a bounded number of lanes
+            int laneCount = Math.min(provisioningProperties.getBatch().getMaxParallel(), ids.size());
+            List<List<Database>> lanes = new ArrayList<>();
+            for (int lane = 0; lane < laneCount; lane++) {
+                lanes.add(new ArrayList<>());
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                lanes.get(i % laneCount).add(savedById.get(ids.get(i)));
+            }
+            for (List<Database> lane : lanes) {
+                lifecycleExecutor.submit(LifecycleOperation.PROVISION, () -> lane.forEach(database ->
+                        operationTracker.bind(operationIds.get(database.getId()), () -> executeProvisioning(database)).run()));
+            }
+
+            List<BatchProvisionItemDto> results = new ArrayList<>();
+            int acceptedCursor = 0;
+            for (int i = 0; i < requests.size(); i++) {
+                CreateDataBaseRequestDto request = requests.get(i);
+                String name = request != null ? request.getName() : null;
+                if (errors.containsKey(i)) {
+                    results.add(BatchProvisionItemDto.builder()
+                            .index(i)
+                            .name(name)
+                            .accepted(false)
+                            .error(errors.get(i))
+                            .build());
+                } else {
+                    Database saved = savedById.get(ids.get(acceptedCursor++));
+                    DatabaseResponseDto database = responseMapper.toDto(saved, includePassword);
+                    database.setOperationId(operationIds.get(saved.getId()));
+                    results.add(BatchProvisionItemDto.builder()
+                            .index(i)
+                            .name(name)
+                            .accepted(true)
+                            .database(database)
+                            .build());
+                }
+            }
+
+            BatchProvisionResponseDto responseDto = BatchProvisionResponseDto.builder()
+                    .requested(requests.size())
+                    .accepted(ids.size())
+                    .rejected(errors.size())
+                    .results(results)
+                    .build();
+
+            log.info("Batch provisioning initiated: {} accepted, {} rejected across {} lane(s)",
+                    ids.size(), errors.size(), laneCount);
+            HttpStatus status = ids.isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+            return ResponseEntity.status(status).body(responseDto);
 
-        // Otherwise, increment from max port
-        return maxPort + 1;
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, rejecting batch provisioning");
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+
+        } catch (Exception e) {
+            log.error("Failed to provision database batch", e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
     }
 
     /**
-     * Converts Database entity to DatabaseResponseDto
+     * Runs the provisioning engine for a saved database and records the outcome
+     * Called on a lifecycle executor thread
      *
-     * @param database The database entity
-     * @return DatabaseResponseDto
+     * @param database The saved database entity in PROVISIONING status
      */
-    private DatabaseResponseDto convertToDto(Database database) {
-        // Decrypt password if present
-        String decryptedPassword = null;
-        if (database.getEncryptedPassword() != null) {
-            try {
-                decryptedPassword = passwordEncryptionService.decrypt(database.getEncryptedPassword());
-            } catch (Exception e) {
-                log.warn("Failed to decrypt password for database: {}", database.getId());
+    private void executeProvisioning(Database database) {
+        final Long dbId = database.getId();
+        final String dbName = database.getName();
+        final DatabaseType dbType = database.getType();
+        final Integer dbPort = database.getPort();
+        final String dbVersion = database.getVersion();
+        final Integer dbMemoryMb = database.getMemoryMb();
+        final long startedAt = System.nanoTime();
+
+        try {
+            log.info("Starting async provisioning for: {} (type: {}, version: {}, memory: {}MB)",
+                    dbName, dbType, dbVersion, dbMemoryMb != null ? dbMemoryMb : "unlimited");
+
+            // Flags the cold path when the image still has to be pulled
+            if (!imageCache.recordUse(dbType, dbVersion)) {
+                operationTracker.enterPhase(OperationPhase.PULLING_IMAGE);
             }
-        }
 
-        return DatabaseResponseDto.builder()
-                .id(database.getId())
-                .name(database.getName())
-                .type(database.getType())
-                .version(database.getVersion())
-                .memoryMb(database.getMemoryMb())
-                .containerId(database.getContainerId())
-                .status(database.getStatus().name())
-                .port(database.getPort())
-                .connectionString(database.getConnectionString())
-                .password(decryptedPassword)
-                .terraformStatePath(database.getTerraformStatePath())
-                .createdAt(database.getCreatedAt())
-                .updatedAt(database.getUpdatedAt())
-                .build();
+            // Take over the standby reserved for this database, or run the provisioning engine;
+            // only containers the engine creates get a named data volume
+            Optional<TerraformResult> claimed = warmPool.flatMap(pool -> pool.claim(dbPort, dbName, dbMemoryMb));
+            final String dataVolume = claimed.isPresent() ? null : configProvider.dataVolumeName(dbId);
+            TerraformResult result = claimed.orElseGet(() -> provisioningEngine.provisionDatabase(
+                    dbName,
+                    dbType,
+                    dbPort,
+                    dbVersion,
+                    dbMemoryMb,
+                    dataVolume
+            ));
+
+            // Fetch database from repository
+            Database db = databaseRepository.findById(dbId).orElse(null);
+            if (db == null) {
+                log.error("Database not found: {}", dbId);
+                return;
+            }
+
+            if (result.success()) {
+                // Update database with connection details, still PROVISIONING until the engine accepts connections
+                db.setConnectionString(result.connectionString());
+                db.setContainerId(result.containerId());
+
+                // Encrypt and store password
+                String encryptedPassword = passwordEncryptionService.encrypt(result.password());
+                db.setEncryptedPassword(encryptedPassword);
+                db.setDatabaseName(dbName);
+                db.setDataVolume(dataVolume);
+                db.setConfigHash(configProvider.configHash(new ContainerSpec(
+                        dbName, dbType, dbPort, result.password(), dbVersion, dbMemoryMb, dbName, dataVolume)));
+
+                db.setTerraformStatePath(
+                        result.workingDirectory() != null
+                                ? result.workingDirectory().toString()
+                                : db.getTerraformStatePath()
+                );
+
+                databaseRepository.save(db);
+                log.info("Database container created: {} (container: {}), waiting for readiness",
+                        db.getName(),
+                        result.containerId());
+
+                operationTracker.enterPhase(OperationPhase.WAITING_FOR_READINESS);
+                boolean ready = readinessProbe.awaitReady(
+                        LifecycleOperation.PROVISION, dbType, dbPort, result.password(), dbName, startedAt);
+
+                Database provisioned = databaseRepository.findById(dbId).orElse(null);
+                if (provisioned == null || provisioned.getStatus() != DatabaseStatus.PROVISIONING) {
+                    return;
+                }
+                if (!ready && !containerRuntime.stop(result.containerId())) {
+                    // FAILED rows cannot be stopped, so the container must not be left running
+                    log.warn("Failed to stop container {} of database {} after readiness timeout",
+                            result.containerId(), dbName);
+                }
+                provisioned.setStatus(ready ? DatabaseStatus.RUNNING : DatabaseStatus.FAILED);
+                databaseRepository.save(provisioned);
+                if (ready) {
+                    operationTracker.succeed();
+                    log.info("Database provisioned successfully: {}", dbName);
+                } else {
+                    operationTracker.fail("Database did not accept connections in time");
+                    log.error("Database provisioning failed: {} did not accept connections in time", dbName);
+                }
+
+            } else {
+                db.setStatus(DatabaseStatus.FAILED);
+                databaseRepository.save(db);
+                operationTracker.fail(result.errorMessage());
+                log.error("Database provisioning failed: {} - {}",
+                        db.getName(),
+                        result.errorMessage());
+            }
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            operationTracker.fail(e.getMessage());
+            log.error("Exception during database provisioning: {}", dbName, e);
+            databaseRepository.findById(dbId).ifPresent(db -> {
+                db.setStatus(DatabaseStatus.FAILED);
+                databaseRepository.save(db);
+            });
+        }
     }
 }
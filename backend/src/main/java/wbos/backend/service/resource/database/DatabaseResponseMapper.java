@@ -0,0 +1,80 @@
+package wbos.backend.service.resource.database;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import wbos.backend.dto.resource.database.DatabaseCredentialsDto;
+import wbos.backend.dto.resource.database.DatabaseResponseDto;
+import wbos.backend.model.resource.database.Database;
+import wbos.backend.service.security.PasswordEncryptionService;
+
+/**
+ * Maps Database entities to API responses
+ *
+ * Passwords are only decrypted when a caller opts in (includePassword=true) or asks for
+ * credentials explicitly, so regular responses never pay for a decryption.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseResponseMapper {
+
+    private final PasswordEncryptionService passwordEncryptionService;
+
+    public DatabaseResponseDto toDto(Database database) {
+        return toDto(database, false);
+    }
+
+    /**
+     * Converts Database entity to DatabaseResponseDto
+     *
+     * @param database The database entity
+     * @param includePassword Decrypt and include the password
+     * @return DatabaseResponseDto
+     */
+    public DatabaseResponseDto toDto(Database database, boolean includePassword) {
+        return DatabaseResponseDto.builder()
+                .id(database.getId())
+                .name(database.getName())
+                .databaseName(database.engineDatabaseName())
+                .type(database.getType())
+                .version(database.getVersion())
+                .memoryMb(database.getMemoryMb())
+                .containerId(database.getContainerId())
+                .status(database.getStatus().name())
+                .port(database.getPort())
+                .connectionString(database.getConnectionString())
+                .password(includePassword ? decryptPassword(database) : null)
+                .terraformStatePath(database.getTerraformStatePath())
+                .createdAt(database.getCreatedAt())
+                .updatedAt(database.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Converts Database entity to DatabaseCredentialsDto, decrypting the password
+     */
+    public DatabaseCredentialsDto toCredentials(Database database) {
+        return DatabaseCredentialsDto.builder()
+                .id(database.getId())
+                .name(database.getName())
+                .databaseName(database.engineDatabaseName())
+                .type(database.getType())
+                .port(database.getPort())
+                .connectionString(database.getConnectionString())
+                .password(decryptPassword(database))
+                .build();
+    }
+
+    private String decryptPassword(Database database) {
+        if (database.getEncryptedPassword() == null) {
+            return null;
+        }
+        try {
+            return passwordEncryptionService.decrypt(database.getEncryptedPassword());
+        } catch (Exception e) {
+            log.warn("Failed to decrypt password for database: {}", database.getId());
+            return null;
+        }
+    }
+}
@@ -1,24 +1,44 @@
 package wbos.backend.service.resource.database;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import wbos.backend.config.TerraformProperties;
 import wbos.backend.dto.resource.database.DatabaseResponseDto;
 import wbos.backend.dto.resource.database.UpdateDatabaseRequestDto;
 import wbos.backend.enums.DatabaseStatus;
 import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.LifecycleOperation;
+import wbos.backend.enums.OperationPhase;
+import wbos.backend.enums.UpdateStrategy;
 import wbos.backend.model.resource.database.Database;
+import wbos.backend.records.ContainerSpec;
 import wbos.backend.records.TerraformResult;
 import wbos.backend.repository.resource.database.DatabaseRepository;
-import wbos.backend.service.infrastructure.TerraformService;
+import wbos.backend.service.infrastructure.ContainerRuntime;
+import wbos.backend.service.infrastructure.DatabaseConfigProvider;
+import wbos.backend.service.infrastructure.ImageCacheService;
+import wbos.backend.service.infrastructure.LifecycleExecutor;
+import wbos.backend.service.infrastructure.LifecycleMetrics;
+import wbos.backend.service.infrastructure.OperationTracker;
+import wbos.backend.service.infrastructure.PortAllocator;
+import wbos.backend.service.infrastructure.ReadinessProbe;
+import wbos.backend.service.infrastructure.ProvisioningEngine;
 import wbos.backend.service.security.PasswordEncryptionService;
 
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
@@ -26,22 +46,40 @@ import java.util.concurrent.CompletableFuture;
 public class DatabaseUpdateService {
 
     private final DatabaseRepository databaseRepository;
-    private final TerraformService terraformService;
+    private final LifecycleExecutor lifecycleExecutor;
+    private final ProvisioningEngine provisioningEngine;
     private final PasswordEncryptionService passwordEncryptionService;
+    private final TerraformProperties terraformProperties;
+    private final PortAllocator portAllocator;
+    private final DatabaseConfigProvider configProvider;
+    private final ContainerRuntime containerRuntime;
+    private final DatabaseResponseMapper responseMapper;
+    private final ImageCacheService imageCache;
+    private final ReadinessProbe readinessProbe;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final OperationTracker operationTracker;
+
+    /** Serialises work on one database's engine working directory (updates and post-resize syncs) */
+    private final Map<Long, ReentrantLock> engineLocks = new ConcurrentHashMap<>();
 
     /**
      * Update an existing database instance
      *
-     * Currently supports:
-     * - Name changes (will trigger container recreation via Terraform)
-     * - Port changes (will trigger container recreation via Terraform)
+     * Each update is classified into the cheapest UpdateStrategy that applies it:
+     * - Memory changes alone are applied to the live container (LIVE_RESIZE)
+     * - Name changes alone rename the container in place (RENAME)
+     * - Port and memory changes replace only the container and keep its data volume
+     *   (RECREATE_CONTAINER), after a rename if the name changes too
+     * - Containers created without a data volume are fully recreated (FULL_RECREATE)
      *
-     * The database MUST be in STOPPED status to be updated.
+     * The database MUST be in STOPPED status to be updated, except for memory-only changes,
+     * which are also accepted while it is RUNNING.
      *
      * @param requestDto The update request containing database name and new configuration
+     * @param includePassword Include the decrypted password in the response
      * @return ResponseEntity with updated database details
      */
-    public ResponseEntity<DatabaseResponseDto> update(UpdateDatabaseRequestDto requestDto) {
+    public ResponseEntity<DatabaseResponseDto> update(UpdateDatabaseRequestDto requestDto, boolean includePassword) {
         log.info("Starting database update for: {}", requestDto.getName());
 
         // Find the database
@@ -53,7 +91,23 @@ public class DatabaseUpdateService {
 
         Database database = databaseOpt.get();
 
-        // Verify database is STOPPED
+        // Check for changes
+        String newName = requestDto.getNewName() != null ? requestDto.getNewName() : database.getName();
+        Integer newPort = requestDto.getPort() != null ? requestDto.getPort() : database.getPort();
+        // null in the request means "keep existing"; explicitly sending a value overrides it
+        Integer newMemoryMb = requestDto.getMemoryMb() != null ? requestDto.getMemoryMb() : database.getMemoryMb();
+
+        boolean hasNameChanged = !newName.equals(database.getName());
+        boolean hasPortChanged = !newPort.equals(database.getPort());
+        boolean hasMemoryChanged = !Objects.equals(newMemoryMb, database.getMemoryMb());
+
+        // A memory limit can be changed on the live container, running or stopped, without a recreate
+        if (hasMemoryChanged && !hasNameChanged && !hasPortChanged && database.getContainerId() != null
+                && (database.getStatus() == DatabaseStatus.RUNNING || database.getStatus() == DatabaseStatus.STOPPED)) {
+            return resizeInPlace(database, newMemoryMb, includePassword);
+        }
+
+        // Everything else renames or replaces the container, which requires it to be STOPPED
         if (database.getStatus() != DatabaseStatus.STOPPED) {
             log.error("Database {} is not stopped (status: {}). Cannot update.",
                     database.getName(), database.getStatus());
@@ -65,19 +119,29 @@ public class DatabaseUpdateService {
                             .build());
         }
 
-        // Check for changes
-        String newName = requestDto.getNewName() != null ? requestDto.getNewName() : database.getName();
-        Integer newPort = requestDto.getPort() != null ? requestDto.getPort() : database.getPort();
-        // null in the request means "keep existing"; explicitly sending a value overrides it
-        Integer newMemoryMb = requestDto.getMemoryMb() != null ? requestDto.getMemoryMb() : database.getMemoryMb();
+        // With a stored hash the rendered configuration decides whether the container has to be
+        // replaced, so unchanged values still recreate it when the template itself changed; the
+        // hash is taken under the current name because a rename never needs a new container.
+        // Older rows fall back to comparing fields.
+        String newConfigHash = database.getConfigHash() != null
+                ? configHash(database, database.getName(), newPort, newMemoryMb)
+                : null;
+        boolean recreateNeeded = newConfigHash != null
+                ? !newConfigHash.equals(database.getConfigHash())
+                : hasPortChanged || hasMemoryChanged;
 
-        boolean hasNameChanged = !newName.equals(database.getName());
-        boolean hasPortChanged = !newPort.equals(database.getPort());
-        boolean hasMemoryChanged = !Objects.equals(newMemoryMb, database.getMemoryMb());
+        if (!hasNameChanged && !recreateNeeded) {
+            log.info("No changes detected for database '{}' - configuration is unchanged", database.getName());
+            return ResponseEntity.status(HttpStatus.OK).body(responseMapper.toDto(database, includePassword));
+        }
 
-        if (!hasNameChanged && !hasPortChanged && !hasMemoryChanged) {
-            log.info("No changes detected for database '{}' - all values are the same", database.getName());
-            return ResponseEntity.status(HttpStatus.OK).body(mapToResponseDto(database));
+        UpdateStrategy strategy;
+        if (!recreateNeeded) {
+            strategy = UpdateStrategy.RENAME;
+        } else if (database.getDataVolume() != null) {
+            strategy = UpdateStrategy.RECREATE_CONTAINER;
+        } else {
+            strategy = UpdateStrategy.FULL_RECREATE;
         }
 
         StringBuilder changeLog = new StringBuilder();
@@ -93,16 +157,30 @@ public class DatabaseUpdateService {
                     newMemoryMb != null ? newMemoryMb + "MB" : "unlimited"));
         }
 
-        log.info("Updating database '{}': {}", database.getName(), changeLog);
+        if (recreateNeeded && !hasPortChanged && !hasMemoryChanged) {
+            changeLog.append("Configuration template changed; ");
+        }
+
+        log.info("Updating database '{}' ({}): {}", database.getName(), strategy, changeLog);
+
+        // Hold the new port for the duration of the update; the old one is released once it succeeds
+        if (hasPortChanged && !lifecycleMetrics.timeCheck(LifecycleMetrics.PORT_ALLOCATION, database.getType(),
+                () -> portAllocator.reserve(newPort))) {
+            log.warn("Port {} was taken concurrently, rejecting update of database: {}", newPort, database.getName());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        final Integer oldPort = database.getPort();
 
         // Set status to UPDATING
         database.setStatus(DatabaseStatus.UPDATING);
         Database updatingDatabase = databaseRepository.save(database);
 
         // Return response immediately with UPDATING status
-        DatabaseResponseDto responseDto = mapToResponseDto(updatingDatabase);
+        DatabaseResponseDto responseDto = responseMapper.toDto(updatingDatabase, includePassword);
+        String operationId = operationTracker.begin(LifecycleOperation.UPDATE, updatingDatabase.getId(), newName);
+        responseDto.setOperationId(operationId);
 
-        // Execute Terraform update asynchronously
+        // Execute update asynchronously
         final Long dbId = updatingDatabase.getId();
         final String oldName = updatingDatabase.getName();
         final DatabaseType dbType = updatingDatabase.getType();
@@ -112,9 +190,10 @@ public class DatabaseUpdateService {
         final String dbVersion = updatingDatabase.getVersion();
         final String oldTerraformPath = updatingDatabase.getTerraformStatePath();
 
-        CompletableFuture.runAsync(() -> {
+        Runnable updateTask = () -> {
+            final long startedAt = System.nanoTime();
             try {
-                log.info("Starting async Terraform update for: {} -> {} (type: {})", oldName, finalNewName, dbType);
+                log.info("Starting async update for: {} -> {} (type: {}, strategy: {})", oldName, finalNewName, dbType, strategy);
 
                 // Decrypt existing password to preserve it
                 String existingPassword = null;
@@ -126,26 +205,26 @@ public class DatabaseUpdateService {
                     }
                 } catch (Exception e) {
                     log.error("Failed to decrypt existing password for database: {}", oldName, e);
+                    operationTracker.fail("Could not decrypt the existing password");
                     // If we can't get the password, we can't update
                     Database db = databaseRepository.findById(dbId).orElse(null);
                     if (db != null) {
                         db.setStatus(DatabaseStatus.FAILED);
                         databaseRepository.save(db);
                     }
+                    if (hasPortChanged) {
+                        portAllocator.release(finalNewPort);
+                    }
                     return;
                 }
 
-                // Execute Terraform update
-                TerraformResult result = terraformService.updateDatabase(
-                        oldName,
-                        finalNewName,
-                        dbType,
-                        finalNewPort,
-                        existingPassword,
-                        Paths.get(oldTerraformPath),
-                        dbVersion,
-                        finalNewMemoryMb
-                );
+                if (strategy != UpdateStrategy.RENAME) {
+                    imageCache.recordUse(dbType, dbVersion);
+                }
+
+                ContainerSpec spec = containerSpec(updatingDatabase, strategy, finalNewName, finalNewPort,
+                        finalNewMemoryMb, existingPassword);
+                TerraformResult result = applyUpdate(strategy, dbId, oldName, spec, Paths.get(oldTerraformPath));
 
                 // Fetch database from repository
                 Database db = databaseRepository.findById(dbId).orElse(null);
@@ -159,26 +238,68 @@ public class DatabaseUpdateService {
                     db.setName(finalNewName);
                     db.setPort(finalNewPort);
                     db.setMemoryMb(finalNewMemoryMb);
+                    db.setDatabaseName(spec.databaseName());
+                    db.setConfigHash(existingPassword != null ? configProvider.configHash(spec) : null);
                     db.setConnectionString(result.connectionString());
-                    db.setContainerId(result.containerId());
-                    db.setStatus(DatabaseStatus.RUNNING);
+                    if (result.containerId() != null) {
+                        db.setContainerId(result.containerId());
+                    }
                     db.setTerraformStatePath(
                             result.workingDirectory() != null
                                     ? result.workingDirectory().toString()
-                                    : String.format("/tmp/terraform/%s", finalNewName)
+                                    : Paths.get(terraformProperties.getBaseDir(), finalNewName).toString()
                     );
 
                     // Password remains the same (already encrypted in database)
 
+                    if (strategy == UpdateStrategy.RENAME) {
+                        // The container was only renamed and is still stopped
+                        db.setStatus(DatabaseStatus.STOPPED);
+                        databaseRepository.save(db);
+                        operationTracker.succeed();
+                        log.info("Database renamed successfully: {} -> {}", oldName, finalNewName);
+                        return;
+                    }
+
                     databaseRepository.save(db);
-                    log.info("Database updated successfully: {} -> {} (container: {})",
+                    if (hasPortChanged) {
+                        portAllocator.release(oldPort);
+                    }
+                    log.info("Database recreated: {} -> {} (container: {}), waiting for readiness",
                             oldName,
                             finalNewName,
                             result.containerId());
 
+                    // Stays UPDATING until the engine accepts connections again
+                    operationTracker.enterPhase(OperationPhase.WAITING_FOR_READINESS);
+                    boolean ready = readinessProbe.awaitReady(
+                            LifecycleOperation.UPDATE, dbType, finalNewPort, existingPassword, spec.databaseName(), startedAt);
+
+                    Database updated = databaseRepository.findById(dbId).orElse(null);
+                    if (updated == null || updated.getStatus() != DatabaseStatus.UPDATING) {
+                        return;
+                    }
+                    updated.setStatus(ready ? DatabaseStatus.RUNNING : DatabaseStatus.FAILED);
+                    databaseRepository.save(updated);
+                    if (ready) {
+                        operationTracker.succeed();
+                        log.info("Database updated successfully: {} -> {}", oldName, finalNewName);
+                    } else {
+                        operationTracker.fail("Database did not accept connections in time");
+                        log.error("Database update failed: {} did not accept connections in time", finalNewName);
+                    }
+
                 } else {
                     db.setStatus(DatabaseStatus.FAILED);
+                    // Keep destroy able to find what a partly applied update left behind
+                    if (result.workingDirectory() != null) {
+                        db.setTerraformStatePath(result.workingDirectory().toString());
+                    }
                     databaseRepository.save(db);
+                    if (hasPortChanged) {
+                        portAllocator.release(finalNewPort);
+                    }
+                    operationTracker.fail(result.errorMessage());
                     log.error("Database update failed: {} -> {} - {}",
                             oldName,
                             finalNewName,
@@ -186,43 +307,198 @@ public class DatabaseUpdateService {
                 }
 
             } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                operationTracker.fail(e.getMessage());
                 log.error("Exception during database update: {} -> {}", oldName, finalNewName, e);
                 databaseRepository.findById(dbId).ifPresent(db -> {
                     db.setStatus(DatabaseStatus.FAILED);
                     databaseRepository.save(db);
                 });
+                if (hasPortChanged) {
+                    portAllocator.release(finalNewPort);
+                }
             }
-        });
+        };
+
+        try {
+            lifecycleExecutor.submit(LifecycleOperation.UPDATE,
+                    operationTracker.bind(operationId, () -> withEngineLock(dbId, updateTask)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, rejecting update of database: {}", oldName);
+            operationTracker.discard(operationId);
+            if (hasPortChanged) {
+                portAllocator.release(finalNewPort);
+            }
+            updatingDatabase.setStatus(DatabaseStatus.STOPPED);
+            databaseRepository.save(updatingDatabase);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
 
         log.info("Database update initiated successfully: {} -> {}", oldName, finalNewName);
         return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
-    private DatabaseResponseDto mapToResponseDto(Database database) {
-        // Decrypt password if present
-        String decryptedPassword = null;
-        if (database.getEncryptedPassword() != null) {
-            try {
-                decryptedPassword = passwordEncryptionService.decrypt(database.getEncryptedPassword());
-            } catch (Exception e) {
-                log.warn("Failed to decrypt password for database: {}", database.getId());
+    /**
+     * Runs the provisioning engine for an update strategy and times it as update_<strategy>
+     *
+     * RECREATE_CONTAINER renames the container first when the name changes, then replaces it in
+     * the renamed working directory. The rename is recorded on the row before the replacement, so
+     * a failed replacement still leaves the row pointing at the renamed container.
+     */
+    private TerraformResult applyUpdate(UpdateStrategy strategy, Long dbId, String oldName, ContainerSpec spec,
+                                        Path workingDir) {
+        Timer.Sample sample = lifecycleMetrics.start();
+        String outcome = LifecycleMetrics.ERROR;
+        try {
+            TerraformResult result = switch (strategy) {
+                case RENAME -> provisioningEngine.renameDatabase(oldName, spec, workingDir);
+                case RECREATE_CONTAINER -> {
+                    Path reconfigureDir = workingDir;
+                    if (!oldName.equals(spec.name())) {
+                        TerraformResult renamed = provisioningEngine.renameDatabase(oldName, spec, workingDir);
+                        if (!renamed.success()) {
+                            yield renamed;
+                        }
+                        if (renamed.workingDirectory() != null) {
+                            reconfigureDir = renamed.workingDirectory();
+                        }
+                        recordRename(dbId, spec.name(), renamed.containerId(), reconfigureDir);
+                    }
+                    yield provisioningEngine.reconfigureDatabase(spec, reconfigureDir);
+                }
+                case FULL_RECREATE -> provisioningEngine.updateDatabase(oldName, spec.name(), spec.type(), spec.port(),
+                        spec.password(), workingDir, spec.version(), spec.memoryMb());
+                case LIVE_RESIZE -> throw new IllegalArgumentException("Live resizes are applied by resizeInPlace");
+            };
+            outcome = result.success() ? LifecycleMetrics.SUCCESS : LifecycleMetrics.FAILURE;
+            return result;
+        } finally {
+            lifecycleMetrics.record(sample, strategy.phase(), spec.type(), outcome);
+        }
+    }
+
+    /**
+     * Stores the name, container and working directory of a renamed database right away
+     */
+    private void recordRename(Long dbId, String newName, String containerId, Path workingDir) {
+        databaseRepository.findById(dbId).ifPresent(db -> {
+            db.setName(newName);
+            if (containerId != null) {
+                db.setContainerId(containerId);
             }
+            if (workingDir != null) {
+                db.setTerraformStatePath(workingDir.toString());
+            }
+            databaseRepository.save(db);
+        });
+    }
+
+    /**
+     * Configuration of the container after an update
+     *
+     * The container keeps its data volume and the database inside the engine keeps its name,
+     * except on a full recreate, which initialises a new database under the new name.
+     */
+    private ContainerSpec containerSpec(Database database, UpdateStrategy strategy, String name, Integer port,
+                                        Integer memoryMb, String password) {
+        boolean fresh = strategy == UpdateStrategy.FULL_RECREATE;
+        return new ContainerSpec(name, database.getType(), port, password, database.getVersion(), memoryMb,
+                fresh ? name : database.engineDatabaseName(), fresh ? null : database.getDataVolume());
+    }
+
+    /**
+     * Hash of the configuration the update would render, or null if the password cannot be read
+     */
+    private String configHash(Database database, String newName, Integer newPort, Integer newMemoryMb) {
+        try {
+            String password = database.getEncryptedPassword() != null
+                    ? passwordEncryptionService.decrypt(database.getEncryptedPassword())
+                    : null;
+            return configProvider.configHash(containerSpec(database, UpdateStrategy.RECREATE_CONTAINER,
+                    newName, newPort, newMemoryMb, password));
+        } catch (Exception e) {
+            log.warn("Could not compute configuration hash for database '{}': {}", database.getName(), e.getMessage());
+            return null;
         }
+    }
+
+    /**
+     * Applies a memory-only change through the Docker container update API
+     *
+     * The container keeps running (or stays stopped) and the row keeps its status. The engine's
+     * own record (Terraform config and state) is brought in line in the background afterwards.
+     */
+    private ResponseEntity<DatabaseResponseDto> resizeInPlace(Database database, Integer newMemoryMb, boolean includePassword) {
+        log.info("Resizing database '{}' in place: {} -> {}MB", database.getName(),
+                database.getMemoryMb() != null ? database.getMemoryMb() + "MB" : "unlimited", newMemoryMb);
+
+        final long startedAt = System.nanoTime();
+        Timer.Sample strategySample = lifecycleMetrics.start();
+        boolean resized = lifecycleMetrics.timeCheck(LifecycleMetrics.DOCKER_UPDATE, database.getType(),
+                () -> containerRuntime.updateMemory(database.getContainerId(), newMemoryMb));
+        if (!resized) {
+            lifecycleMetrics.record(strategySample, UpdateStrategy.LIVE_RESIZE.phase(), database.getType(),
+                    LifecycleMetrics.FAILURE);
+            log.error("Failed to resize database '{}' in place", database.getName());
+            // The container keeps its previous limit, so the row and its status stay as they are
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+
+        // Only the memory columns are written, so a stop or start that raced with the resize keeps its status
+        String newConfigHash = configHash(database, database.getName(), database.getPort(), newMemoryMb);
+        databaseRepository.updateMemoryLimit(database.getId(), newMemoryMb, newConfigHash, LocalDateTime.now());
+        lifecycleMetrics.record(strategySample, UpdateStrategy.LIVE_RESIZE.phase(), database.getType(),
+                LifecycleMetrics.SUCCESS);
+        log.info("Database '{}' resized to {}MB in {}ms", database.getName(), newMemoryMb,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
 
-        return DatabaseResponseDto.builder()
-                .id(database.getId())
-                .name(database.getName())
-                .type(database.getType())
-                .version(database.getVersion())
-                .memoryMb(database.getMemoryMb())
-                .containerId(database.getContainerId())
-                .status(database.getStatus().name())
-                .port(database.getPort())
-                .connectionString(database.getConnectionString())
-                .password(decryptedPassword)
-                .terraformStatePath(database.getTerraformStatePath())
-                .createdAt(database.getCreatedAt())
-                .updatedAt(database.getUpdatedAt())
-                .build();
+        final Long dbId = database.getId();
+        final String dbName = database.getName();
+        final String encryptedPassword = database.getEncryptedPassword();
+        final String workingDir = database.getTerraformStatePath();
+        try {
+            lifecycleExecutor.submit(LifecycleOperation.UPDATE, () -> withEngineLock(dbId, () -> {
+                // A later update that got the lock first renamed or recreated the container from the
+                // stored configuration, which already carries the new limit
+                boolean unchanged = databaseRepository.findById(dbId)
+                        .filter(current -> dbName.equals(current.getName())
+                                && Objects.equals(workingDir, current.getTerraformStatePath())
+                                && Objects.equals(newMemoryMb, current.getMemoryMb()))
+                        .isPresent();
+                if (!unchanged) {
+                    log.info("Database '{}' changed since the resize, skipping engine state sync", dbName);
+                    return;
+                }
+                String password = encryptedPassword != null ? passwordEncryptionService.decrypt(encryptedPassword) : null;
+                ContainerSpec spec = containerSpec(database, UpdateStrategy.LIVE_RESIZE, dbName, database.getPort(),
+                        newMemoryMb, password);
+                if (!provisioningEngine.syncMemoryLimit(spec, workingDir != null ? Paths.get(workingDir) : null)) {
+                    log.warn("Provisioning engine state of database '{}' does not record the {}MB limit yet; "
+                            + "the next recreate applies it from the stored configuration", dbName, newMemoryMb);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            log.warn("Lifecycle queue full, engine state of database '{}' not synced after resize", dbName);
+        }
+
+        return databaseRepository.findById(dbId)
+                .map(resizedDatabase -> ResponseEntity.ok(responseMapper.toDto(resizedDatabase, includePassword)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Runs a task while holding the engine lock of a database, so a background sync and a
+     * following update never share its working directory at the same time
+     */
+    private void withEngineLock(Long databaseId, Runnable task) {
+        ReentrantLock lock = engineLocks.computeIfAbsent(databaseId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            task.run();
+        } finally {
+            lock.unlock();
+        }
     }
 }
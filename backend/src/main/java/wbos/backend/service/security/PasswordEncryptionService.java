@@ -5,20 +5,43 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Service for encrypting and decrypting database passwords
- * Uses AES encryption to store passwords securely
+ *
+ * New values are encrypted with AES-256-GCM and stored as {@code v1:<base64(iv || ciphertext || tag)>}
+ * with a random 12-byte IV per value. Values without a version prefix are legacy AES/ECB ciphertexts
+ * and are still decrypted; PasswordReencryptionJob rewrites them in the new format.
+ *
+ * Cipher instances are kept in small pools and re-initialised per call instead of being looked up
+ * with Cipher.getInstance every time. A pool is used rather than a ThreadLocal because lifecycle
+ * work runs on short-lived virtual threads.
  */
 @Service
 @Slf4j
 public class PasswordEncryptionService {
 
     private static final String ALGORITHM = "AES";
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String V1_PREFIX = "v1:";
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int MAX_POOLED_CIPHERS = 64;
+
     private final SecretKeySpec secretKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Queue<Cipher> gcmCiphers = new ConcurrentLinkedQueue<>();
+    private final Queue<Cipher> legacyCiphers = new ConcurrentLinkedQueue<>();
 
     public PasswordEncryptionService(
             @Value("${security.encryption.key:MySecretEncryptionKey123456}") String encryptionKey) {
@@ -31,36 +54,78 @@ public class PasswordEncryptionService {
      * Encrypts a plain text password
      *
      * @param plainPassword The password in plain text
-     * @return Base64 encoded encrypted password
+     * @return Versioned, Base64 encoded AES-GCM ciphertext
      */
     public String encrypt(String plainPassword) {
+        Cipher cipher = borrow(gcmCiphers, GCM_TRANSFORMATION);
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
+            byte[] iv = new byte[GCM_IV_BYTES];
+            secureRandom.nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
             byte[] encrypted = cipher.doFinal(plainPassword.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encrypted);
+
+            byte[] payload = ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array();
+            return V1_PREFIX + Base64.getEncoder().encodeToString(payload);
         } catch (Exception e) {
             log.error("Failed to encrypt password", e);
             throw new RuntimeException("Encryption failed", e);
+        } finally {
+            giveBack(gcmCiphers, cipher);
         }
     }
 
     /**
-     * Decrypts an encrypted password
+     * Decrypts an encrypted password in either the current or the legacy format
      *
-     * @param encryptedPassword The Base64 encoded encrypted password
+     * @param encryptedPassword The encrypted password
      * @return Plain text password
      */
     public String decrypt(String encryptedPassword) {
+        boolean legacy = isLegacy(encryptedPassword);
+        Queue<Cipher> pool = legacy ? legacyCiphers : gcmCiphers;
+        Cipher cipher = borrow(pool, legacy ? LEGACY_TRANSFORMATION : GCM_TRANSFORMATION);
         try {
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            byte[] decoded = Base64.getDecoder().decode(encryptedPassword);
-            byte[] decrypted = cipher.doFinal(decoded);
+            byte[] decrypted;
+            if (legacy) {
+                cipher.init(Cipher.DECRYPT_MODE, secretKey);
+                decrypted = cipher.doFinal(Base64.getDecoder().decode(encryptedPassword));
+            } else {
+                byte[] payload = Base64.getDecoder().decode(encryptedPassword.substring(V1_PREFIX.length()));
+                cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(GCM_TAG_BITS, payload, 0, GCM_IV_BYTES));
+                decrypted = cipher.doFinal(payload, GCM_IV_BYTES, payload.length - GCM_IV_BYTES);
+            }
             return new String(decrypted, StandardCharsets.UTF_8);
         } catch (Exception e) {
             log.error("Failed to decrypt password", e);
             throw new RuntimeException("Decryption failed", e);
+        } finally {
+            giveBack(pool, cipher);
+        }
+    }
+
+    /**
+     * Whether a stored value still uses the legacy unversioned AES/ECB format
+     */
+    public boolean isLegacy(String encryptedPassword) {
+        return encryptedPassword != null && !encryptedPassword.startsWith(V1_PREFIX);
+    }
+
+    private Cipher borrow(Queue<Cipher> pool, String transformation) {
+        Cipher cipher = pool.poll();
+        if (cipher != null) {
+            return cipher;
+        }
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher not available: " + transformation, e);
+        }
+    }
+
+    private void giveBack(Queue<Cipher> pool, Cipher cipher) {
+        // Size check is approximate under contention, which only matters for how many spares are kept
+        if (pool.size() < MAX_POOLED_CIPHERS) {
+            pool.offer(cipher);
         }
     }
 }
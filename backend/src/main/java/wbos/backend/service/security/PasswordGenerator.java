@@ -0,0 +1,32 @@
+package wbos.backend.service.security;
+
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+
+/**
+ * Generates random passwords for newly provisioned database instances
+ */
+@Component
+public class PasswordGenerator {
+
+    private static final String CHARSET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int PASSWORD_LENGTH = 24;
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Generates a secure random password
+     *
+     * @return Alphanumeric password safe to embed in connection strings and HCL
+     */
+    public String generate() {
+        StringBuilder password = new StringBuilder(PASSWORD_LENGTH);
+
+        for (int i = 0; i < PASSWORD_LENGTH; i++) {
+            password.append(CHARSET.charAt(random.nextInt(CHARSET.length())));
+        }
+
+        return password.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package wbos.backend.service.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import wbos.backend.model.resource.database.Database;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+
+import java.util.List;
+
+/**
+ * Rewrites legacy AES/ECB password ciphertexts in the current AES-GCM format
+ *
+ * Runs once in the background after startup (security.encryption.reencrypt-legacy, on by default)
+ * and works through the legacy rows in small batches. Each row is swapped with a compare-and-set
+ * update, so a password changed concurrently by a lifecycle operation is never overwritten.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordReencryptionJob {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final DatabaseRepository databaseRepository;
+    private final PasswordEncryptionService passwordEncryptionService;
+
+    @Value("${security.encryption.reencrypt-legacy:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Legacy password re-encryption is disabled");
+            return;
+        }
+        Thread.ofVirtual().name("password-reencryption").start(this::run);
+    }
+
+    /**
+     * Re-encrypts every legacy password
+     *
+     * @return Number of rows rewritten
+     */
+    public int run() {
+        int rewritten = 0;
+        int failed = 0;
+        long lastId = 0;
+
+        while (true) {
+            List<Database> batch = databaseRepository.findLegacyEncryptedAfter(lastId, PageRequest.of(0, BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (Database database : batch) {
+                lastId = database.getId();
+                String legacyValue = database.getEncryptedPassword();
+                try {
+                    String plain = passwordEncryptionService.decrypt(legacyValue);
+                    String current = passwordEncryptionService.encrypt(plain);
+                    rewritten += databaseRepository.replaceEncryptedPassword(database.getId(), legacyValue, current);
+                } catch (Exception e) {
+                    failed++;
+                    log.warn("Could not re-encrypt password for database {}: {}", database.getId(), e.getMessage());
+                }
+            }
+        }
+
+        if (rewritten > 0 || failed > 0) {
+            log.info("Re-encrypted {} legacy password(s) with AES-GCM ({} failed)", rewritten, failed);
+        }
+        return rewritten;
+    }
+}
@@ -0,0 +1,64 @@
+package wbos.backend.service.utlis.logs;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches container log lines against a literal or regular-expression filter
+ *
+ * The pattern is compiled once and its Matcher reused for every line, so an instance
+ * must only be used from one thread (a single Docker log callback).
+ */
+public final class LogLineFilter {
+
+    private static final LogLineFilter MATCH_ALL = new LogLineFilter(null, null);
+
+    private final String literal;
+    private final Matcher matcher;
+
+    private LogLineFilter(String literal, Matcher matcher) {
+        this.literal = literal;
+        this.matcher = matcher;
+    }
+
+    /**
+     * Creates a filter; a null or blank expression matches every line
+     *
+     * @param expression Text to look for, or a regular expression when regex is true
+     * @param regex Treat the expression as a java.util.regex pattern
+     * @param ignoreCase Match regardless of case
+     * @return Filter for one log stream
+     * @throws IllegalArgumentException if the regular expression is invalid
+     */
+    public static LogLineFilter of(String expression, boolean regex, boolean ignoreCase) {
+        if (expression == null || expression.isBlank()) {
+            return MATCH_ALL;
+        }
+        if (!regex && !ignoreCase) {
+            return new LogLineFilter(expression, null);
+        }
+
+        try {
+            int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+            String source = regex ? expression : Pattern.quote(expression);
+            return new LogLineFilter(null, Pattern.compile(source, flags).matcher(""));
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid filter pattern: " + e.getDescription(), e);
+        }
+    }
+
+    public boolean isMatchAll() {
+        return this == MATCH_ALL;
+    }
+
+    public boolean matches(String line) {
+        if (literal != null) {
+            return line.contains(literal);
+        }
+        if (matcher != null) {
+            return matcher.reset(line).find();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,50 @@
+package wbos.backend.service.utlis.logs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity buffer that keeps the most recent log lines
+ *
+ * Memory stays at {@code capacity} references no matter how many lines are added.
+ * Not thread-safe.
+ */
+public final class LogRingBuffer {
+
+    private final String[] lines;
+    private int next;
+    private long added;
+
+    public LogRingBuffer(int capacity) {
+        this.lines = new String[Math.max(capacity, 0)];
+    }
+
+    public void add(String line) {
+        added++;
+        if (lines.length == 0) {
+            return;
+        }
+        lines[next] = line;
+        next = (next + 1) % lines.length;
+    }
+
+    /**
+     * Total number of lines ever added, including those already overwritten
+     */
+    public long getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the retained lines, oldest first
+     */
+    public List<String> toList() {
+        int size = (int) Math.min(added, lines.length);
+        List<String> result = new ArrayList<>(size);
+        int start = size < lines.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            result.add(lines[(start + i) % lines.length]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package wbos.backend.service.utlis.stats;
+
+import wbos.backend.records.ContainerStatsPoint;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity series of container usage points at one resolution
+ *
+ * Samples are folded into the point of the interval they fall in; once a sample of a later
+ * interval arrives the point is written to the ring and the oldest one is overwritten when it is
+ * full. Every field is held in its own primitive array, so memory stays at {@code capacity}
+ * points no matter how long the container runs and adding a sample allocates nothing.
+ * Not thread-safe.
+ */
+public final class StatsRingBuffer {
+
+    private final long resolutionMillis;
+
+    private final long[] time;
+    private final int[] samples;
+    private final double[] cpu;
+    private final double[] cpuMax;
+    private final long[] memory;
+    private final long[] memoryMax;
+    private final double[] rx;
+    private final double[] tx;
+    private final double[] read;
+    private final double[] write;
+    private int next;
+    private int size;
+
+    // Point of the interval currently being filled
+    private long openTime;
+    private int openSamples;
+    private double openCpu;
+    private double openCpuMax;
+    private double openMemory;
+    private long openMemoryMax;
+    private double openRx;
+    private double openTx;
+    private double openRead;
+    private double openWrite;
+
+    public StatsRingBuffer(long resolutionMillis, int capacity) {
+        this.resolutionMillis = Math.max(resolutionMillis, 1);
+        int length = Math.max(capacity, 0);
+        this.time = new long[length];
+        this.samples = new int[length];
+        this.cpu = new double[length];
+        this.cpuMax = new double[length];
+        this.memory = new long[length];
+        this.memoryMax = new long[length];
+        this.rx = new double[length];
+        this.tx = new double[length];
+        this.read = new double[length];
+        this.write = new double[length];
+    }
+
+    public long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    /**
+     * Time covered by the retained points
+     */
+    public long getSpanMillis() {
+        return resolutionMillis * time.length;
+    }
+
+    /**
+     * Adds one sample; rates are in bytes per second
+     */
+    public void add(long timeMillis, double cpuPercent, long memoryBytes,
+                    double rxRate, double txRate, double readRate, double writeRate) {
+        long intervalStart = timeMillis - Math.floorMod(timeMillis, resolutionMillis);
+        if (openSamples > 0 && intervalStart != openTime) {
+            close();
+        }
+        if (openSamples == 0) {
+            openTime = intervalStart;
+            openCpuMax = cpuPercent;
+            openMemoryMax = memoryBytes;
+        }
+        openSamples++;
+        openCpu += cpuPercent;
+        openCpuMax = Math.max(openCpuMax, cpuPercent);
+        openMemory += memoryBytes;
+        openMemoryMax = Math.max(openMemoryMax, memoryBytes);
+        openRx += rxRate;
+        openTx += txRate;
+        openRead += readRate;
+        openWrite += writeRate;
+    }
+
+    /**
+     * Returns the points starting at or after {@code sinceMillis}, oldest first
+     *
+     * The interval still being filled is included as the last point.
+     */
+    public List<ContainerStatsPoint> toList(long sinceMillis) {
+        List<ContainerStatsPoint> result = new ArrayList<>(size + 1);
+        int start = size < time.length ? 0 : next;
+        for (int i = 0; i < size; i++) {
+            int slot = (start + i) % time.length;
+            if (time[slot] >= sinceMillis) {
+                result.add(new ContainerStatsPoint(Instant.ofEpochMilli(time[slot]), samples[slot],
+                        cpu[slot], cpuMax[slot], memory[slot], memoryMax[slot],
+                        rx[slot], tx[slot], read[slot], write[slot]));
+            }
+        }
+        if (openSamples > 0 && openTime >= sinceMillis) {
+            result.add(new ContainerStatsPoint(Instant.ofEpochMilli(openTime), openSamples,
+                    openCpu / openSamples, openCpuMax, Math.round(openMemory / openSamples), openMemoryMax,
+                    openRx / openSamples, openTx / openSamples, openRead / openSamples, openWrite / openSamples));
+        }
+        return result;
+    }
+
+    private void close() {
+        if (time.length > 0) {
+            time[next] = openTime;
+            samples[next] = openSamples;
+            cpu[next] = openCpu / openSamples;
+            cpuMax[next] = openCpuMax;
+            memory[next] = Math.round(openMemory / openSamples);
+            memoryMax[next] = openMemoryMax;
+            rx[next] = openRx / openSamples;
+            tx[next] = openTx / openSamples;
+            read[next] = openRead / openSamples;
+            write[next] = openWrite / openSamples;
+            next = (next + 1) % time.length;
+            size = Math.min(size + 1, time.length);
+        }
+        openSamples = 0;
+        openCpu = 0;
+        openMemory = 0;
+        openRx = 0;
+        openTx = 0;
+        openRead = 0;
+        openWrite = 0;
+    }
+}
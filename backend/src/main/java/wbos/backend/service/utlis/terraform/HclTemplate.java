@@ -0,0 +1,77 @@
+package wbos.backend.service.utlis.terraform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration template with ${name} placeholders
+ *
+ * The source is split once, when the template is compiled, into alternating literal and
+ * placeholder segments. Rendering only appends the segments to a builder sized for the literal
+ * text, instead of re-parsing a format string on every call the way String.format does.
+ * Values are inserted as-is; HCL escaping is up to the caller.
+ */
+public final class HclTemplate {
+
+    private final String[] literals;
+    private final String[] placeholders;
+    private final int literalLength;
+
+    private HclTemplate(List<String> literals, List<String> placeholders) {
+        this.literals = literals.toArray(String[]::new);
+        this.placeholders = placeholders.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Parses a template
+     *
+     * @param source Template text
+     * @return Compiled template
+     * @throws IllegalArgumentException if a placeholder is not closed or has no name
+     */
+    public static HclTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int position = 0;
+        int start;
+        while ((start = source.indexOf("${", position)) >= 0) {
+            int end = source.indexOf('}', start + 2);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + start);
+            }
+            String name = source.substring(start + 2, end);
+            if (name.isBlank()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + start);
+            }
+            literals.add(source.substring(position, start));
+            placeholders.add(name);
+            position = end + 1;
+        }
+        literals.add(source.substring(position));
+
+        return new HclTemplate(literals, placeholders);
+    }
+
+    /**
+     * Renders the template
+     *
+     * @param values Value per placeholder name
+     * @return Rendered text
+     * @throws IllegalArgumentException if a placeholder has no value
+     */
+    public String render(Map<String, ?> values) {
+        StringBuilder out = new StringBuilder(literalLength + placeholders.length * 16);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object value = values.get(placeholders[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for placeholder ${" + placeholders[i] + "}");
+            }
+            out.append(value);
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+}
@@ -0,0 +1,226 @@
+package wbos.backend.service.utlis.terraform;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import wbos.backend.records.TerraformResourceTiming;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental reader for the machine-readable output of {@code terraform apply -json}
+ *
+ * Terraform prints one JSON message per line. Each line is read with a streaming parser as it
+ * arrives and only the parts the backend uses are kept: the outputs message, so no separate
+ * {@code terraform output} process is needed, error diagnostics, and the start and completion
+ * hooks of every resource, which are paired into per-resource timings. The completion time is
+ * taken from the message timestamps, falling back to the whole seconds in elapsed_seconds.
+ *
+ * Not thread-safe; one instance reads the output of one process.
+ */
+public final class TerraformEventStream {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Map<String, String> outputs = new HashMap<>();
+    private final List<TerraformResourceTiming> resources = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private final Map<String, OffsetDateTime> started = new HashMap<>();
+    private boolean outputsSeen;
+
+    /**
+     * Reads one line of the stream
+     *
+     * @param line Line printed by terraform
+     * @return Human-readable message of the line; the line itself if it is not a JSON message
+     */
+    public String accept(String line) {
+        if (line.isEmpty() || line.charAt(0) != '{') {
+            return line;
+        }
+
+        String type = null;
+        String level = null;
+        String message = line;
+        String timestamp = null;
+        Hook hook = null;
+        String diagnostic = null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return line;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "type" -> type = parser.getText();
+                    case "@level" -> level = parser.getText();
+                    case "@message" -> message = parser.getText();
+                    case "@timestamp" -> timestamp = parser.getText();
+                    case "hook" -> hook = value == JsonToken.START_OBJECT ? readHook(parser) : skip(parser);
+                    case "diagnostic" -> diagnostic = value == JsonToken.START_OBJECT ? readDiagnostic(parser) : skip(parser);
+                    case "outputs" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            TerraformOutputParser.readOutputs(parser, outputs);
+                            outputsSeen = true;
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            return line;
+        }
+
+        if (type == null) {
+            return message;
+        }
+        switch (type) {
+            case "apply_start", "refresh_start" -> {
+                if (hook != null && timestamp != null) {
+                    started.put(hook.key(type), parseTimestamp(timestamp));
+                }
+            }
+            case "apply_complete", "apply_errored", "refresh_complete" -> {
+                if (hook != null) {
+                    resources.add(timing(type, hook, timestamp));
+                }
+            }
+            case "diagnostic" -> {
+                if ("error".equals(level) && diagnostic != null) {
+                    errors.add(diagnostic);
+                }
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    /**
+     * @return true if the stream contained an outputs message
+     */
+    public boolean hasOutputs() {
+        return outputsSeen;
+    }
+
+    /**
+     * @return String outputs by name, from the outputs message
+     */
+    public Map<String, String> outputs() {
+        return outputs;
+    }
+
+    /**
+     * @return Timing of every resource that completed or errored, in completion order
+     */
+    public List<TerraformResourceTiming> resources() {
+        return resources;
+    }
+
+    /**
+     * @return Summary and detail of every error diagnostic
+     */
+    public List<String> errors() {
+        return errors;
+    }
+
+    private TerraformResourceTiming timing(String type, Hook hook, String timestamp) {
+        OffsetDateTime startedAt = started.remove(hook.key(type));
+        OffsetDateTime completedAt = timestamp != null ? parseTimestamp(timestamp) : null;
+        Duration elapsed = startedAt != null && completedAt != null
+                ? Duration.between(startedAt, completedAt)
+                : Duration.ofMillis((long) (hook.elapsedSeconds() * 1000));
+        String action = type.startsWith("refresh") ? "refresh" : hook.action();
+        return new TerraformResourceTiming(hook.address(), hook.resourceType(), action, elapsed,
+                !"apply_errored".equals(type));
+    }
+
+    private static OffsetDateTime parseTimestamp(String timestamp) {
+        try {
+            return OffsetDateTime.parse(timestamp);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads {"resource": {"addr": ..., "resource_type": ...}, "action": ..., "elapsed_seconds": ...}
+     */
+    private static Hook readHook(JsonParser parser) throws IOException {
+        String address = null;
+        String resourceType = null;
+        String action = null;
+        double elapsedSeconds = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("resource".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String resourceField = parser.currentName();
+                    parser.nextToken();
+                    if ("addr".equals(resourceField)) {
+                        address = parser.getText();
+                    } else if ("resource_type".equals(resourceField)) {
+                        resourceType = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if ("action".equals(field)) {
+                action = parser.getText();
+            } else if ("elapsed_seconds".equals(field) && value.isNumeric()) {
+                elapsedSeconds = parser.getDoubleValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return address != null ? new Hook(address, resourceType, action, elapsedSeconds) : null;
+    }
+
+    /**
+     * Reads the summary and detail of a diagnostic, skipping its source range and snippet
+     */
+    private static String readDiagnostic(JsonParser parser) throws IOException {
+        String summary = null;
+        String detail = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("summary".equals(field)) {
+                summary = parser.getText();
+            } else if ("detail".equals(field)) {
+                detail = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (summary == null) {
+            return null;
+        }
+        return detail == null || detail.isBlank() ? summary : summary + ": " + detail;
+    }
+
+    private static <T> T skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+
+    private record Hook(String address, String resourceType, String action, double elapsedSeconds) {
+
+        /** Pairs a start hook with its completion; a replace runs delete and create on one address */
+        String key(String type) {
+            return type.startsWith("refresh") ? address + "#refresh" : address + "#" + action;
+        }
+    }
+}
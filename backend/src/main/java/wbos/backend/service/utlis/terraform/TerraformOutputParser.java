@@ -0,0 +1,70 @@
+package wbos.backend.service.utlis.terraform;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads string outputs from the JSON printed by {@code terraform output -json}
+ *
+ * The document has the form {@code {"name": {"sensitive": false, "type": "string", "value": "..."}}}.
+ * It is read with a streaming parser in one pass, without building a tree; outputs whose value is
+ * not a string are skipped.
+ */
+public final class TerraformOutputParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private TerraformOutputParser() {
+    }
+
+    /**
+     * Parses all string outputs
+     *
+     * @param json Output of terraform output -json
+     * @return Output values by name; empty for blank or malformed input
+     */
+    public static Map<String, String> parse(String json) {
+        Map<String, String> outputs = new HashMap<>();
+        if (json == null || json.isBlank()) {
+            return outputs;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                readOutputs(parser, outputs);
+            }
+        } catch (IOException e) {
+            // Keep whatever was read before the malformed part
+        }
+        return outputs;
+    }
+
+    /**
+     * Reads the outputs object the parser is positioned on, up to and including its END_OBJECT
+     *
+     * Shared with TerraformEventStream, whose outputs message embeds the same object.
+     */
+    static void readOutputs(JsonParser parser, Map<String, String> outputs) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("value".equals(field) && value == JsonToken.VALUE_STRING) {
+                    outputs.put(name, parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+}
@@ -9,7 +9,13 @@ import wbos.backend.enums.DatabaseStatus;
 import wbos.backend.model.resource.database.Database;
 import wbos.backend.repository.resource.database.DatabaseRepository;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service for validating database operations
@@ -102,6 +108,64 @@ public class RequestValidationService {
         return true;
     }
 
+    /**
+     * Validates a batch of database creation requests together
+     *
+     * Applies the same rules as validateCreateRequest, plus uniqueness of names and ports within
+     * the batch, but resolves existing names and ports with one query each instead of per item.
+     *
+     * @param requests The database creation requests, in submission order
+     * @return Rejection reason per request index; requests without an entry passed validation
+     */
+    public Map<Integer, String> validateBatchCreateRequest(List<? extends DatabaseRequestDto> requests) {
+        log.info("Validating batch CREATE request with {} item(s)", requests.size());
+
+        Map<Integer, String> errors = new HashMap<>();
+        Set<String> batchNames = new HashSet<>();
+        Set<Integer> batchPorts = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            DatabaseRequestDto request = requests.get(i);
+            if (request == null) {
+                errors.put(i, "Request cannot be null");
+            } else if (!validateBasicNameRules(request.getName())) {
+                errors.put(i, "Database name must contain only lowercase letters, numbers, and hyphens");
+            } else if (!batchNames.add(request.getName())) {
+                errors.put(i, "Duplicate database name in batch: " + request.getName());
+            } else if (request.getPort() != null && (request.getPort() < 5433 || request.getPort() > 65535)) {
+                errors.put(i, "Port must be between 5433 and 65535 (5432 is reserved)");
+            } else if (request.getPort() != null && !batchPorts.add(request.getPort())) {
+                errors.put(i, "Duplicate port in batch: " + request.getPort());
+            }
+        }
+
+        Set<String> takenNames = batchNames.isEmpty()
+                ? Set.of()
+                : databaseRepository.findByNameIn(batchNames).stream()
+                        .filter(db -> db.getStatus() != DatabaseStatus.DESTROYED)
+                        .map(Database::getName)
+                        .collect(Collectors.toSet());
+        Set<Integer> takenPorts = batchPorts.isEmpty()
+                ? Set.of()
+                : new HashSet<>(databaseRepository.findPortsInUse(batchPorts));
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors.containsKey(i)) {
+                continue;
+            }
+            DatabaseRequestDto request = requests.get(i);
+            if (takenNames.contains(request.getName())) {
+                errors.put(i, "Database with name '" + request.getName() + "' already exists");
+            } else if (request.getPort() != null && takenPorts.contains(request.getPort())) {
+                errors.put(i, "Port " + request.getPort() + " is already in use");
+            }
+        }
+
+        log.info("Batch CREATE validation finished: {} valid, {} rejected",
+                requests.size() - errors.size(), errors.size());
+        return errors;
+    }
+
     /**
      * Validates database deletion request
      *
@@ -163,7 +227,7 @@ public class RequestValidationService {
      * Checks:
      * - Database name is provided and valid format
      * - Database exists with given name
-     * - Database is in STOPPED state (only stopped databases can be updated)
+     * - Database is in STOPPED state, or RUNNING when only the memory limit changes (applied live)
      * - If newName is provided, validate it's not already in use (unless DESTROYED)
      * - If port is being changed, validate the new port
      *
@@ -190,7 +254,11 @@ public class RequestValidationService {
 
         Database database = databaseOpt.get();
 
-        if (database.getStatus() != DatabaseStatus.STOPPED) {
+        boolean memoryOnly = requestDto.getMemoryMb() != null
+                && (requestDto.getNewName() == null || requestDto.getNewName().equals(database.getName()))
+                && (requestDto.getPort() == null || requestDto.getPort().equals(database.getPort()));
+        if (database.getStatus() != DatabaseStatus.STOPPED
+                && !(memoryOnly && database.getStatus() == DatabaseStatus.RUNNING)) {
             log.error("Database '{}' (ID: {}) cannot be updated - must be in STOPPED state but is in '{}' state",
                     database.getName(), database.getId(), database.getStatus());
             return false;
@@ -0,0 +1,3 @@
+-- Support the filtered, sorted database list (GET /databases)
+-- Default listing filters on status and orders by creation time
+CREATE INDEX IF NOT EXISTS idx_databases_status_created_at ON databases(status, created_at);
@@ -0,0 +1,2 @@
+-- Support delta sync (GET /databases?changedSince=) and list ETags, which filter and aggregate on updated_at
+CREATE INDEX IF NOT EXISTS idx_databases_updated_at ON databases(updated_at);
@@ -0,0 +1,3 @@
+-- SHA-256 of the configuration a container was last created from
+-- NULL for rows created before hashing; their next update always recreates the container
+ALTER TABLE databases ADD COLUMN IF NOT EXISTS config_hash VARCHAR(64);
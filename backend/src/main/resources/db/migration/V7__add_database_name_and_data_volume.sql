@@ -0,0 +1,7 @@
+-- Database created inside the engine, kept apart from the (renameable) row name
+-- NULL for rows from before renames; the row name is used for them
+ALTER TABLE databases ADD COLUMN IF NOT EXISTS database_name VARCHAR(255);
+
+-- Named Docker volume holding the data, reused when only the container is recreated
+-- NULL for containers created without one; they are fully recreated on update
+ALTER TABLE databases ADD COLUMN IF NOT EXISTS data_volume VARCHAR(255);
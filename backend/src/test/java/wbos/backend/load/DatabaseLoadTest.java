@@ -0,0 +1,367 @@
+package wbos.backend.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import wbos.backend.enums.DatabaseStatus;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.enums.LifecycleOperation;
+import wbos.backend.model.resource.database.Database;
+import wbos.backend.records.DatabaseStatusCount;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the REST API with hundreds of concurrent lifecycle calls against fake infrastructure
+ *
+ * Runs in phases (create, stop, update, start, a mixed phase firing conflicting operations at
+ * the same databases, destroy). All requests of a phase are released at once; the phase ends when
+ * no row is left in a transitional status. The report lists per-operation throughput, latency
+ * percentiles and status codes, the peak active/queued lifecycle executor slots and any rows
+ * stuck in a transitional status.
+ *
+ * Excluded from the default build; run with {@code mvn -pl backend -P load test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load")
+class DatabaseLoadTest {
+
+    private static final Set<DatabaseStatus> TRANSITIONAL = EnumSet.of(
+            DatabaseStatus.PROVISIONING, DatabaseStatus.UPDATING, DatabaseStatus.STARTING,
+            DatabaseStatus.STOPPING, DatabaseStatus.DESTROYING);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DatabaseRepository databaseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${load.databases:300}")
+    private int databaseCount;
+
+    @Value("${load.settle-timeout:2m}")
+    private Duration settleTimeout;
+
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private final List<String> phases = new ArrayList<>();
+    private final Map<LifecycleOperation, int[]> peakSlots = new EnumMap<>(LifecycleOperation.class);
+    private final AtomicBoolean sampling = new AtomicBoolean(true);
+
+    private ExecutorService clients;
+    private HttpClient http;
+    private Thread sampler;
+
+    @BeforeEach
+    void setUp() {
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder().executor(clients).build();
+        for (LifecycleOperation operation : LifecycleOperation.values()) {
+            peakSlots.put(operation, new int[2]);
+        }
+        sampler = Thread.ofVirtual().name("load-saturation-sampler").start(this::sampleSaturation);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        sampling.set(false);
+        sampler.join();
+        clients.close();
+    }
+
+    @Test
+    void lifecycleUnderConcurrentLoad() throws Exception {
+        DatabaseType[] types = DatabaseType.values();
+
+        runPhase("create", IntStream.range(0, databaseCount).boxed().toList(), i -> request("create",
+                HttpRequest.newBuilder(uri("/databases")).POST(json(Map.of(
+                        "name", "load-" + i,
+                        "type", types[i % types.length].name(),
+                        "memoryMb", 256)))));
+
+        runPhase("stop", idsIn(DatabaseStatus.RUNNING),
+                id -> request("stop", HttpRequest.newBuilder(uri("/databases/" + id + "/stop")).POST(noBody())));
+
+        // Updates require a stopped database; half of the stopped ones are updated, the rest started
+        List<Database> stopped = databasesIn(DatabaseStatus.STOPPED);
+        runPhase("update", stopped.subList(0, stopped.size() / 2).stream().map(Database::getName).toList(),
+                name -> request("update", HttpRequest.newBuilder(uri("/databases/" + name))
+                        .PUT(json(Map.of("name", name, "memoryMb", 512)))));
+
+        runPhase("start", idsIn(DatabaseStatus.STOPPED),
+                id -> request("start", HttpRequest.newBuilder(uri("/databases/" + id + "/start")).POST(noBody())));
+
+        // Two random operations per database at the same time, to provoke conflicting transitions
+        List<Database> live = liveDatabases();
+        List<Runnable> mixed = new ArrayList<>();
+        for (Database database : live) {
+            mixed.add(() -> randomOperation(database));
+            mixed.add(() -> randomOperation(database));
+        }
+        runPhase("mixed", mixed, Runnable::run);
+
+        runPhase("destroy", liveDatabases().stream().map(Database::getId).toList(),
+                id -> request("destroy", HttpRequest.newBuilder(uri("/databases/" + id)).DELETE()));
+
+        sampling.set(false);
+        sampler.join();
+
+        List<Database> stuck = databaseRepository.findAll().stream()
+                .filter(database -> TRANSITIONAL.contains(database.getStatus()))
+                .toList();
+        System.out.println(report(stuck));
+
+        assertThat(stuck).as("rows stuck in a transitional status").isEmpty();
+        stats.values().forEach(operation -> assertThat(operation.serverErrors())
+                .as("%s requests answered with 500", operation.name)
+                .isZero());
+    }
+
+    private void randomOperation(Database database) {
+        switch (ThreadLocalRandom.current().nextInt(4)) {
+            case 0 -> request("mixed-stop", HttpRequest.newBuilder(uri("/databases/" + database.getId() + "/stop")).POST(noBody()));
+            case 1 -> request("mixed-start", HttpRequest.newBuilder(uri("/databases/" + database.getId() + "/start")).POST(noBody()));
+            case 2 -> request("mixed-update", HttpRequest.newBuilder(uri("/databases/" + database.getName()))
+                    .PUT(json(Map.of("name", database.getName(), "memoryMb", 384))));
+            default -> request("mixed-destroy", HttpRequest.newBuilder(uri("/databases/" + database.getId())).DELETE());
+        }
+    }
+
+    /**
+     * Releases one request per item at the same moment, then waits for the background work to settle
+     */
+    private <T> void runPhase(String phase, List<T> items, Consumer<T> call) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(items.size());
+        for (T item : items) {
+            clients.execute(() -> {
+                try {
+                    go.await();
+                    call.accept(item);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        go.countDown();
+        done.await();
+        long requestsDoneAt = System.nanoTime();
+        boolean settled = awaitSettled();
+        long settledAt = System.nanoTime();
+
+        phases.add(String.format("%-8s %5d requests in %6dms, settled after %6dms%s",
+                phase, items.size(),
+                TimeUnit.NANOSECONDS.toMillis(requestsDoneAt - startedAt),
+                TimeUnit.NANOSECONDS.toMillis(settledAt - startedAt),
+                settled ? "" : " (NOT settled within " + settleTimeout + ")"));
+    }
+
+    private boolean awaitSettled() throws InterruptedException {
+        long deadline = System.nanoTime() + settleTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            boolean transitional = databaseRepository.countByStatus().stream()
+                    .anyMatch(count -> TRANSITIONAL.contains(count.status()) && count.count() > 0);
+            if (!transitional) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private void request(String operation, HttpRequest.Builder builder) {
+        HttpRequest request = builder.header("Content-Type", "application/json").build();
+        long startedAt = System.nanoTime();
+        int status;
+        try {
+            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = -1;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        OperationStats operationStats;
+        synchronized (stats) {
+            operationStats = stats.computeIfAbsent(operation, OperationStats::new);
+        }
+        operationStats.record(status, elapsed, startedAt);
+    }
+
+    private void sampleSaturation() {
+        while (sampling.get()) {
+            for (LifecycleOperation operation : LifecycleOperation.values()) {
+                String tag = operation.name().toLowerCase();
+                int[] peaks = peakSlots.get(operation);
+                peaks[0] = Math.max(peaks[0], gaugeValue("lifecycle.executor.active", tag));
+                peaks[1] = Math.max(peaks[1], gaugeValue("lifecycle.executor.queued", tag));
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private int gaugeValue(String name, String operation) {
+        Gauge gauge = meterRegistry.find(name).tag("operation", operation).gauge();
+        return gauge != null ? (int) gauge.value() : 0;
+    }
+
+    private String report(List<Database> stuck) {
+        StringBuilder report = new StringBuilder("\n==== Load test report (").append(databaseCount).append(" databases) ====\n");
+
+        report.append("\nPhases\n");
+        phases.forEach(line -> report.append("  ").append(line).append('\n'));
+
+        report.append("\nRequests\n");
+        report.append(String.format("  %-14s %6s %9s %8s %8s %8s %8s  %s%n",
+                "op", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "status codes"));
+        stats.values().forEach(operation -> report.append("  ").append(operation.summary()).append('\n'));
+
+        report.append("\nLifecycle executor\n");
+        for (LifecycleOperation operation : LifecycleOperation.values()) {
+            String tag = operation.name().toLowerCase();
+            int[] peaks = peakSlots.get(operation);
+            Timer wait = meterRegistry.find("lifecycle.executor.queue.wait").tag("operation", tag).timer();
+            report.append(String.format("  %-10s peak active %3d / %3d, peak queued %4d, queue wait mean %6.0fms max %6.0fms%n",
+                    tag, peaks[0], gaugeValue("lifecycle.executor.limit", tag), peaks[1],
+                    wait != null ? wait.mean(TimeUnit.MILLISECONDS) : 0,
+                    wait != null ? wait.max(TimeUnit.MILLISECONDS) : 0));
+        }
+        Counter rejected = meterRegistry.find("lifecycle.executor.rejected").counter();
+        report.append(String.format("  rejected (503): %.0f%n", rejected != null ? rejected.count() : 0));
+
+        report.append("\nFinal statuses\n");
+        Map<DatabaseStatus, Long> statuses = new TreeMap<>();
+        for (DatabaseStatusCount count : databaseRepository.countByStatus()) {
+            statuses.put(count.status(), count.count());
+        }
+        report.append("  ").append(statuses).append('\n');
+
+        report.append("\nStuck rows: ").append(stuck.size()).append('\n');
+        stuck.forEach(database -> report.append(String.format("  #%d %s %s (last change %s)%n",
+                database.getId(), database.getName(), database.getStatus(), database.getUpdatedAt())));
+        return report.toString();
+    }
+
+    private List<Long> idsIn(DatabaseStatus status) {
+        return databasesIn(status).stream().map(Database::getId).toList();
+    }
+
+    private List<Database> databasesIn(DatabaseStatus status) {
+        return databaseRepository.findAll().stream()
+                .filter(database -> database.getStatus() == status)
+                .toList();
+    }
+
+    private List<Database> liveDatabases() {
+        return databaseRepository.findAll().stream()
+                .filter(database -> database.getStatus() != DatabaseStatus.DESTROYED)
+                .toList();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/v1" + path);
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, Object> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpRequest.BodyPublisher noBody() {
+        return HttpRequest.BodyPublishers.noBody();
+    }
+
+    /**
+     * Latencies and status codes of one kind of request
+     */
+    private static final class OperationStats {
+
+        private final String name;
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<Integer, Integer> statusCodes = new TreeMap<>();
+        private long firstStartedAt = Long.MAX_VALUE;
+        private long lastFinishedAt;
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(int status, long latencyNanos, long startedAt) {
+            latencies.add(latencyNanos);
+            statusCodes.merge(status, 1, Integer::sum);
+            firstStartedAt = Math.min(firstStartedAt, startedAt);
+            lastFinishedAt = Math.max(lastFinishedAt, startedAt + latencyNanos);
+        }
+
+        synchronized int serverErrors() {
+            return statusCodes.getOrDefault(500, 0);
+        }
+
+        synchronized String summary() {
+            List<Long> sorted = latencies.stream().sorted().toList();
+            double seconds = Math.max(lastFinishedAt - firstStartedAt, 1) / 1e9;
+            return String.format("%-14s %6d %9.1f %8.1f %8.1f %8.1f %8.1f  %s",
+                    name, sorted.size(), sorted.size() / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0), statusCodes);
+        }
+
+        private static double percentile(List<Long> sorted, double quantile) {
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package wbos.backend.load;
+
+import lombok.RequiredArgsConstructor;
+import wbos.backend.service.infrastructure.ContainerRuntime;
+
+/**
+ * Container runtime that only waits and fails as configured under app.fake.docker
+ */
+@RequiredArgsConstructor
+public class FakeContainerRuntime implements ContainerRuntime {
+
+    private final FakeInfrastructureProperties.Behaviour behaviour;
+
+    @Override
+    public boolean start(String containerId) {
+        return behaviour.simulate();
+    }
+
+    @Override
+    public boolean stop(String containerId) {
+        return behaviour.simulate();
+    }
+
+    @Override
+    public boolean updateMemory(String containerId, int memoryMb) {
+        return behaviour.simulate();
+    }
+
+    @Override
+    public boolean rename(String containerId, String newName) {
+        return behaviour.simulate();
+    }
+}
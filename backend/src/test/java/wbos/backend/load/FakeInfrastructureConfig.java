@@ -0,0 +1,35 @@
+package wbos.backend.load;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import wbos.backend.service.infrastructure.ContainerRuntime;
+import wbos.backend.service.infrastructure.DatabaseConfigProvider;
+import wbos.backend.service.infrastructure.ProvisioningEngine;
+import wbos.backend.service.security.PasswordGenerator;
+
+/**
+ * Replaces Terraform and the docker CLI with fakes for the load profile
+ *
+ * application-load.yml sets app.provisioning.engine=fake so neither real engine is created.
+ */
+@Configuration
+@Profile("load")
+@EnableConfigurationProperties(FakeInfrastructureProperties.class)
+public class FakeInfrastructureConfig {
+
+    @Bean
+    public ProvisioningEngine fakeProvisioningEngine(FakeInfrastructureProperties properties,
+                                                     DatabaseConfigProvider configProvider,
+                                                     PasswordGenerator passwordGenerator) {
+        return new FakeProvisioningEngine(properties.getEngine(), configProvider, passwordGenerator);
+    }
+
+    @Bean
+    @Primary
+    public ContainerRuntime fakeContainerRuntime(FakeInfrastructureProperties properties) {
+        return new FakeContainerRuntime(properties.getDocker());
+    }
+}
@@ -0,0 +1,63 @@
+package wbos.backend.load;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fake Infrastructure Configuration Properties
+ *
+ * Configured via app.fake in application-load.yml
+ */
+@ConfigurationProperties(prefix = "app.fake")
+@Data
+public class FakeInfrastructureProperties {
+
+    /**
+     * Behaviour of provision, update and destroy
+     */
+    private Behaviour engine = new Behaviour();
+
+    /**
+     * Behaviour of container start and stop
+     */
+    private Behaviour docker = new Behaviour();
+
+    @Data
+    public static class Behaviour {
+
+        /**
+         * Minimum time a call takes
+         */
+        private Duration latency = Duration.ofMillis(200);
+
+        /**
+         * Random extra time added on top of the latency, up to this much
+         */
+        private Duration jitter = Duration.ofMillis(100);
+
+        /**
+         * Share of calls that fail, from 0.0 to 1.0
+         */
+        private double failureRate = 0.0;
+
+        /**
+         * Waits for the configured latency and decides the outcome of one call
+         *
+         * @return true if the call should succeed
+         */
+        boolean simulate() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long millis = latency.toMillis() + (jitter.isZero() ? 0 : random.nextLong(jitter.toMillis() + 1));
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return random.nextDouble() >= failureRate;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package wbos.backend.load;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.records.ContainerSpec;
+import wbos.backend.records.TerraformResult;
+import wbos.backend.service.infrastructure.DatabaseConfigProvider;
+import wbos.backend.service.infrastructure.ProvisioningEngine;
+import wbos.backend.service.security.PasswordGenerator;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Provisioning engine that creates no containers, only waits and fails as configured under app.fake.engine
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class FakeProvisioningEngine implements ProvisioningEngine {
+
+    private final FakeInfrastructureProperties.Behaviour behaviour;
+    private final DatabaseConfigProvider configProvider;
+    private final PasswordGenerator passwordGenerator;
+
+    @Override
+    public TerraformResult provisionDatabase(String dbName, DatabaseType type, Integer port, String version, Integer memoryMb,
+                                             String dataVolume) {
+        if (!behaviour.simulate()) {
+            log.debug("Fake provisioning of {} failed", dbName);
+            return new TerraformResult(false, null, null, null, "Injected provisioning failure", null);
+        }
+        String password = passwordGenerator.generate();
+        return new TerraformResult(true, configProvider.generateConnectionString(type, dbName, port, password),
+                fakeContainerId(), password, null, null);
+    }
+
+    @Override
+    public TerraformResult updateDatabase(String oldName, String newName, DatabaseType type,
+                                          Integer newPort, String existingPassword, Path oldWorkingDir,
+                                          String version, Integer memoryMb) {
+        if (!behaviour.simulate()) {
+            log.debug("Fake update of {} failed", oldName);
+            return new TerraformResult(false, null, null, null, "Injected update failure", null);
+        }
+        return new TerraformResult(true, configProvider.generateConnectionString(type, newName, newPort, existingPassword),
+                fakeContainerId(), existingPassword, null, null);
+    }
+
+    @Override
+    public TerraformResult renameDatabase(String oldName, ContainerSpec spec, Path workingDir) {
+        if (!behaviour.simulate()) {
+            log.debug("Fake rename of {} failed", oldName);
+            return new TerraformResult(false, null, null, null, "Injected rename failure", null);
+        }
+        return new TerraformResult(true, connectionString(spec), fakeContainerId(), spec.password(), null, null);
+    }
+
+    @Override
+    public TerraformResult reconfigureDatabase(ContainerSpec spec, Path workingDir) {
+        if (!behaviour.simulate()) {
+            log.debug("Fake reconfiguration of {} failed", spec.name());
+            return new TerraformResult(false, null, null, null, "Injected update failure", null);
+        }
+        return new TerraformResult(true, connectionString(spec), fakeContainerId(), spec.password(), null, null);
+    }
+
+    @Override
+    public boolean destroyDatabase(String dbName, Path workingDir) {
+        return behaviour.simulate();
+    }
+
+    private String connectionString(ContainerSpec spec) {
+        return configProvider.generateConnectionString(spec.type(), spec.databaseName(), spec.port(), spec.password());
+    }
+
+    private static String fakeContainerId() {
+        return "fake-" + UUID.randomUUID();
+    }
+}
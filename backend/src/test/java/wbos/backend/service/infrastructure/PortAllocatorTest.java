@@ -0,0 +1,80 @@
+package wbos.backend.service.infrastructure;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import wbos.backend.config.PortProperties;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PortAllocatorTest {
+
+    private PortAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseRepository repository = mock(DatabaseRepository.class);
+        when(repository.findAllocatedPorts()).thenReturn(List.of(5433, 5434, 3306));
+
+        allocator = new PortAllocator(repository, new DatabaseConfigProvider(), new PortProperties());
+        allocator.load();
+    }
+
+    @Test
+    void allocatesLowestFreePortFromTypeStart() {
+        assertThat(allocator.allocate(DatabaseType.POSTGRESQL)).isEqualTo(5435);
+        assertThat(allocator.allocate(DatabaseType.MYSQL)).isEqualTo(3307);
+        assertThat(allocator.allocate(DatabaseType.REDIS)).isEqualTo(6379);
+        assertThat(allocator.isAllocated(5432)).isTrue();
+    }
+
+    @Test
+    void reusesReleasedPorts() {
+        int first = allocator.allocate(DatabaseType.POSTGRESQL);
+        allocator.allocate(DatabaseType.POSTGRESQL);
+
+        allocator.release(5433);
+        allocator.release(first);
+
+        assertThat(allocator.allocate(DatabaseType.POSTGRESQL)).isEqualTo(5433);
+        assertThat(allocator.allocate(DatabaseType.POSTGRESQL)).isEqualTo(first);
+    }
+
+    @Test
+    void explicitReservationFailsWhenTaken() {
+        assertThat(allocator.reserve(5434)).isFalse();
+        assertThat(allocator.reserve(7000)).isTrue();
+        assertThat(allocator.reserve(7000)).isFalse();
+    }
+
+    @Test
+    void concurrentAllocationsNeverShareAPort() throws InterruptedException {
+        Set<Integer> ports = ConcurrentHashMap.newKeySet();
+        int perThread = 250;
+        int threads = 8;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ports.add(allocator.allocate(DatabaseType.POSTGRESQL));
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(ports).hasSize(threads * perThread).doesNotContain(5432, 5433, 5434);
+    }
+}
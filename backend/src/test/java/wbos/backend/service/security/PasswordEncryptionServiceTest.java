@@ -0,0 +1,56 @@
+package wbos.backend.service.security;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordEncryptionServiceTest {
+
+    private static final String KEY = "TestEncryptionKey";
+    private static final String PASSWORD = "Xk3vQ9mTzR7wLp2sNc8dYb4h";
+
+    private final PasswordEncryptionService service = new PasswordEncryptionService(KEY);
+
+    @Test
+    void roundTripsThroughVersionedGcm() {
+        String first = service.encrypt(PASSWORD);
+        String second = service.encrypt(PASSWORD);
+
+        assertThat(first).startsWith("v1:");
+        assertThat(second).isNotEqualTo(first);
+        assertThat(service.isLegacy(first)).isFalse();
+        assertThat(service.decrypt(first)).isEqualTo(PASSWORD);
+        assertThat(service.decrypt(second)).isEqualTo(PASSWORD);
+    }
+
+    @Test
+    void decryptsLegacyEcbValue() throws Exception {
+        // Same key derivation as the service: right-padded with spaces to 32 bytes
+        SecretKeySpec key = new SecretKeySpec(
+                String.format("%-32s", KEY).getBytes(StandardCharsets.UTF_8), "AES");
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        String legacy = Base64.getEncoder().encodeToString(cipher.doFinal(PASSWORD.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(service.isLegacy(legacy)).isTrue();
+        assertThat(service.decrypt(legacy)).isEqualTo(PASSWORD);
+    }
+
+    @Test
+    void rejectsTamperedGcmValue() {
+        String encrypted = service.encrypt(PASSWORD);
+        byte[] payload = Base64.getDecoder().decode(encrypted.substring("v1:".length()));
+        payload[payload.length / 2] ^= 1;
+        String tampered = "v1:" + Base64.getEncoder().encodeToString(payload);
+
+        assertThatThrownBy(() -> service.decrypt(tampered))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Decryption failed");
+    }
+}
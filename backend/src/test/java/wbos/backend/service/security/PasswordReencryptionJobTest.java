@@ -0,0 +1,62 @@
+package wbos.backend.service.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import wbos.backend.model.resource.database.Database;
+import wbos.backend.repository.resource.database.DatabaseRepository;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordReencryptionJobTest {
+
+    private static final String KEY = "TestEncryptionKey";
+
+    private final PasswordEncryptionService encryptionService = new PasswordEncryptionService(KEY);
+    private final DatabaseRepository repository = mock(DatabaseRepository.class);
+    private final PasswordReencryptionJob job = new PasswordReencryptionJob(repository, encryptionService);
+
+    @Test
+    void rewritesLegacyRowsAndSkipsRowsChangedConcurrently() throws Exception {
+        String firstLegacy = legacyEncrypt("first-password");
+        String secondLegacy = legacyEncrypt("second-password");
+        when(repository.findLegacyEncryptedAfter(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(database(1L, firstLegacy), database(2L, secondLegacy)))
+                .thenReturn(List.of());
+        when(repository.replaceEncryptedPassword(eq(1L), eq(firstLegacy), any())).thenReturn(1);
+        // Row 2 got a new password after it was read, so the compare-and-set matches nothing
+        when(repository.replaceEncryptedPassword(eq(2L), eq(secondLegacy), any())).thenReturn(0);
+
+        assertThat(job.run()).isEqualTo(1);
+
+        verify(repository).replaceEncryptedPassword(eq(1L), eq(firstLegacy),
+                argThat(value -> "first-password".equals(encryptionService.decrypt(value))));
+        verify(repository).replaceEncryptedPassword(eq(2L), eq(secondLegacy),
+                argThat(value -> !encryptionService.isLegacy(value)));
+        verify(repository).findLegacyEncryptedAfter(eq(2L), any(Pageable.class));
+    }
+
+    private static Database database(Long id, String encryptedPassword) {
+        return Database.builder().id(id).name("db-" + id).encryptedPassword(encryptedPassword).build();
+    }
+
+    private static String legacyEncrypt(String password) throws Exception {
+        SecretKeySpec key = new SecretKeySpec(
+                String.format("%-32s", KEY).getBytes(StandardCharsets.UTF_8), "AES");
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+}
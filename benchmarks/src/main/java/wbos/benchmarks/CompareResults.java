@@ -0,0 +1,93 @@
+package wbos.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Regression gate for JMH JSON results
+ *
+ * Usage: {@code java -cp benchmarks.jar wbos.benchmarks.CompareResults baseline.json current.json [threshold%]}
+ *
+ * Benchmarks are matched by name and parameters. A benchmark regresses when its score got worse
+ * (higher for time modes, lower for throughput) by more than the threshold (default 10%) and by
+ * more than the two error margins combined. Exits with status 1 if anything regressed.
+ */
+public final class CompareResults {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+
+            JsonNode after = entry.getValue();
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            double errors = finite(before.path("primaryMetric").path("scoreError").asDouble())
+                    + finite(after.path("primaryMetric").path("scoreError").asDouble());
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+            double worse = higherIsBetter ? oldScore - newScore : newScore - oldScore;
+            double changePercent = oldScore != 0 ? (newScore - oldScore) / oldScore * 100 : 0;
+            boolean regressed = worse > errors && Math.abs(changePercent) > threshold;
+            if (regressed) {
+                regressions++;
+            }
+
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    regressed ? "REGRESSED" : "ok",
+                    entry.getKey(), oldScore, newScore,
+                    after.path("primaryMetric").path("scoreUnit").asText(), changePercent);
+        }
+
+        System.out.printf("%d regression(s) above %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    private static String key(JsonNode result) {
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> param = fields.next();
+            params.put(param.getKey(), param.getValue().asText());
+        }
+        String name = result.path("benchmark").asText();
+        return params.isEmpty() ? name : name + params;
+    }
+
+    private static double finite(double value) {
+        return Double.isFinite(value) ? value : 0;
+    }
+}
@@ -0,0 +1,71 @@
+package wbos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wbos.backend.service.utlis.logs.LogLineFilter;
+import wbos.backend.service.utlis.logs.LogRingBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Console log filtering: matching LINE_COUNT container log lines into a tail ring buffer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogFilterBenchmark {
+
+    private static final int LINE_COUNT = 10_000;
+    private static final String[] SAMPLE_LINES = {
+            "2026-10-16 19:10:09.123 UTC [1] LOG:  database system is ready to accept connections",
+            "2026-10-16 19:10:12.456 UTC [57] LOG:  checkpoint starting: time",
+            "2026-10-16 19:10:15.789 UTC [57] LOG:  checkpoint complete: wrote 3 buffers (0.0%)",
+            "2026-10-16 19:10:18.012 UTC [88] ERROR:  relation \"orders\" does not exist at character 15",
+            "2026-10-16 19:10:18.012 UTC [88] STATEMENT:  SELECT * FROM orders WHERE id = 1",
+            "2026-10-16 19:10:21.345 UTC [90] FATAL:  password authentication failed for user \"app\"",
+    };
+
+    /** literal, ignore-case or regex filter */
+    @Param({"literal", "ignoreCase", "regex"})
+    private String mode;
+
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        lines = new String[LINE_COUNT];
+        for (int i = 0; i < LINE_COUNT; i++) {
+            lines[i] = SAMPLE_LINES[i % SAMPLE_LINES.length];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINE_COUNT)
+    public long filterTail() {
+        LogLineFilter filter = switch (mode) {
+            case "literal" -> LogLineFilter.of("ERROR", false, false);
+            case "ignoreCase" -> LogLineFilter.of("error", false, true);
+            default -> LogLineFilter.of("(ERROR|FATAL):\\s+\\w+", true, false);
+        };
+        LogRingBuffer tail = new LogRingBuffer(200);
+        for (String line : lines) {
+            if (filter.matches(line)) {
+                tail.add(line);
+            }
+        }
+        return tail.getAdded();
+    }
+}
@@ -0,0 +1,77 @@
+package wbos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wbos.backend.service.security.PasswordEncryptionService;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password encryption: pooled AES-GCM against the previous per-call Cipher.getInstance AES/ECB
+ *
+ * Run multi-threaded (-t 4) to see pool contention as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncryptionBenchmark {
+
+    private static final String KEY = "BenchmarkEncryptionKey0123456789";
+    private static final String PASSWORD = "Xk3vQ9mTzR7wLp2sNc8dYb4h";
+
+    private PasswordEncryptionService service;
+    private SecretKeySpec legacyKey;
+    private String gcmCiphertext;
+    private String legacyCiphertext;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new PasswordEncryptionService(KEY);
+        legacyKey = new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES");
+        gcmCiphertext = service.encrypt(PASSWORD);
+
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, legacyKey);
+        legacyCiphertext = Base64.getEncoder().encodeToString(cipher.doFinal(PASSWORD.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return service.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return service.decrypt(gcmCiphertext);
+    }
+
+    @Benchmark
+    public String decryptLegacy() {
+        return service.decrypt(legacyCiphertext);
+    }
+
+    /**
+     * Baseline: the implementation before cipher pooling
+     */
+    @Benchmark
+    public String encryptPerCallLookup() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, legacyKey);
+        return Base64.getEncoder().encodeToString(cipher.doFinal(PASSWORD.getBytes(StandardCharsets.UTF_8)));
+    }
+}
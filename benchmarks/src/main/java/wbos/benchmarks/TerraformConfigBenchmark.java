@@ -0,0 +1,51 @@
+package wbos.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import wbos.backend.enums.DatabaseType;
+import wbos.backend.records.ContainerSpec;
+import wbos.backend.service.infrastructure.DatabaseConfigProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HCL generation for every database type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerraformConfigBenchmark {
+
+    @Param({"POSTGRESQL", "MYSQL", "MONGODB", "REDIS", "MARIADB"})
+    private DatabaseType type;
+
+    private DatabaseConfigProvider configProvider;
+
+    @Setup
+    public void setUp() {
+        configProvider = new DatabaseConfigProvider();
+    }
+
+    @Benchmark
+    public String generateTerraformConfig() {
+        return configProvider.generateTerraformConfig(type, "bench-db", 5433, "Xk3vQ9mTzR7wLp2sNc8dYb4h", null, 512);
+    }
+
+    @Benchmark
+    public String configHash() {
+        return configProvider.configHash(new ContainerSpec(
+                "bench-db", type, 5433, "Xk3vQ9mTzR7wLp2sNc8dYb4h", null, 512, "bench-db", "local-cloud-data-1"));
+    }
+}
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { Toaster, toast } from 'react-hot-toast';
 import Modal from './components/Modal';
 import DatabaseForm from './components/DatabaseForm';
@@ -27,20 +27,31 @@ function App() {
     fetchDatabases();
   }, []);
 
-  useEffect(() => {
-    const hasActiveOperation = databases.some(
-      db => ['PROVISIONING', 'DESTROYING', 'STARTING', 'STOPPING', 'UPDATING'].includes(db.status)
-    );
-    if (!hasActiveOperation) return;
-
-    const pollInterval = setInterval(() => {
-      fetchDatabases();
-    }, 3000);
+  // Live status updates pushed by the backend; handlers live in a ref so they always see current state
+  const statusEventHandlers = useRef(null);
+  statusEventHandlers.current = {
+    onStatus: (event) => {
+      const known = databases.some(db => db.id === event.id);
+      // Settled states carry new details (connection string, container id), so reload those
+      if (!known || ['RUNNING', 'STOPPED', 'FAILED', 'DESTROYED'].includes(event.status)) {
+        fetchDatabases();
+        return;
+      }
+      setDatabases(prev => prev.map(db =>
+        db.id === event.id ? { ...db, status: event.status, updatedAt: event.updatedAt } : db
+      ));
+    },
+    onResync: () => fetchDatabases(),
+  };
 
-    return () => clearInterval(pollInterval);
-  }, [databases]);
+  useEffect(() => {
+    return databaseService.subscribeToStatusEvents({
+      onStatus: (event) => statusEventHandlers.current.onStatus(event),
+      onResync: () => statusEventHandlers.current.onResync(),
+    });
+  }, []);
 
-  // Keep the update modal's database in sync with live polling results
+  // Keep the update modal's database in sync with live status updates
   useEffect(() => {
     if (!databaseToUpdate) return;
     const latest = databases.find(db => db.id === databaseToUpdate.id);
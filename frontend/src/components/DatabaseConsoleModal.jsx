@@ -10,7 +10,9 @@ import toast from 'react-hot-toast';
 
 const getConnectCommands = (database) => {
   if (!database) return [];
-  const { type, port, password, name } = database;
+  // The engine database keeps its original name when the instance is renamed
+  const { type, port, password } = database;
+  const name = database.databaseName ?? database.name;
   switch (type) {
     case 'POSTGRES':
       return [
@@ -56,6 +58,7 @@ const lineClass = (line) => {
 // ── Component ──────────────────────────────────────────────────────────────────
 
 const TABS = ['logs', 'inspect', 'connect'];
+const MAX_FOLLOW_LINES = 5000;
 const TAB_LABELS = { logs: 'Logs', inspect: 'Inspect', connect: 'Connect' };
 
 const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
@@ -64,7 +67,10 @@ const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
   const [isLoading, setIsLoading]     = useState(false);
   const [filter, setFilter]           = useState('');
   const [tail, setTail]               = useState('100');
+  const [following, setFollowing]     = useState(false);
+  const [password, setPassword]       = useState(null);
   const outputRef = useRef(null);
+  const stopFollowRef = useRef(null);
 
   useEffect(() => {
     if (outputRef.current) {
@@ -72,8 +78,31 @@ const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
     }
   }, [outputLines]);
 
+  const stopFollowing = () => {
+    if (stopFollowRef.current) {
+      stopFollowRef.current();
+      stopFollowRef.current = null;
+    }
+    setFollowing(false);
+  };
+
+  // Connect commands need the password, which is only returned by the credentials endpoint
+  useEffect(() => {
+    setPassword(null);
+    if (!isOpen || !database) return;
+    let cancelled = false;
+    databaseService.getCredentials(database.id)
+      .then(creds => { if (!cancelled) setPassword(creds.password); })
+      .catch(() => {});
+    return () => { cancelled = true; };
+  }, [isOpen, database?.id]);
+
+  // Close any open log stream when the modal unmounts
+  useEffect(() => () => stopFollowRef.current?.(), []);
+
   useEffect(() => {
     if (!isOpen) {
+      stopFollowing();
       setOutputLines([]);
       setActiveTab('logs');
       setFilter('');
@@ -84,7 +113,7 @@ const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
   if (!database) return null;
 
   const typeInfo    = DATABASE_TYPES.find(t => t.id === database.type) || DATABASE_TYPES[0];
-  const connectCmds = getConnectCommands(database);
+  const connectCmds = getConnectCommands({ ...database, password: password ?? database.password });
   const hasOutput   = outputLines.length > 0;
 
   const fetchLogs = async () => {
@@ -100,6 +129,23 @@ const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
     }
   };
 
+  const toggleFollow = () => {
+    if (following) {
+      stopFollowing();
+      return;
+    }
+    setOutputLines([]);
+    setFollowing(true);
+    stopFollowRef.current = databaseService.followConsoleLogs(database.id, parseInt(tail) || 100, {
+      // Keep the view bounded while following chatty containers
+      onLines: (lines) => setOutputLines(prev => [...prev, ...lines].slice(-MAX_FOLLOW_LINES)),
+      onEnd: () => {
+        stopFollowRef.current = null;
+        setFollowing(false);
+      },
+    });
+  };
+
   const fetchInspect = async () => {
     setIsLoading(true);
     setOutputLines([]);
@@ -114,11 +160,13 @@ const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
   };
 
   const handleTabClick = (tab) => {
+    stopFollowing();
     setActiveTab(tab);
     setOutputLines([]);
   };
 
   const handleRun = () => {
+    stopFollowing();
     if (activeTab === 'logs')    fetchLogs();
     if (activeTab === 'inspect') fetchInspect();
   };
@@ -250,6 +298,18 @@ const DatabaseConsoleModal = ({ database, isOpen, onClose }) => {
                       )}
                     </button>
 
+                    {activeTab === 'logs' && (
+                      <button
+                        onClick={toggleFollow}
+                        disabled={isLoading}
+                        className={`px-3 py-1.5 island-inset border text-xs font-medium rounded-lg transition-colors hover:bg-white/[0.04] flex-shrink-0 ${
+                          following ? 'border-emerald-400/40 text-emerald-300' : 'border-white/[0.06] text-white'
+                        }`}
+                      >
+                        {following ? 'Stop' : 'Follow'}
+                      </button>
+                    )}
+
                     {hasOutput && (
                       <button
                         onClick={handleCopyOutput}
@@ -1,12 +1,25 @@
-import React, { Fragment, useState } from 'react';
+import React, { Fragment, useState, useEffect } from 'react';
 import { Dialog, Transition, Menu } from '@headlessui/react';
 import { XMarkIcon, ChevronDownIcon, EyeIcon, EyeSlashIcon } from '@heroicons/react/24/outline';
 import StatusBadge from './StatusBadge';
 import { DATABASE_TYPES } from './DatabaseTypeSelector';
 import toast from 'react-hot-toast';
+import databaseService from '../services/databaseService';
 
 const DatabaseDetailsModal = ({ database, isOpen, onClose, onAction }) => {
   const [showPassword, setShowPassword] = useState(false);
+  const [password, setPassword] = useState(null);
+
+  // Credentials are fetched only when the modal is opened for a database that has them
+  useEffect(() => {
+    setPassword(null);
+    if (!isOpen || !database || database.status === 'PROVISIONING') return;
+    let cancelled = false;
+    databaseService.getCredentials(database.id)
+      .then(creds => { if (!cancelled) setPassword(creds.password); })
+      .catch(() => {});
+    return () => { cancelled = true; };
+  }, [isOpen, database?.id, database?.status]);
 
   if (!database) return null;
 
@@ -120,7 +133,7 @@ const DatabaseDetailsModal = ({ database, isOpen, onClose, onAction }) => {
                       </div>
 
                       {/* Password */}
-                      {database.password && (
+                      {password && (
                         <div className="island-inset rounded-xl px-4 py-3">
                           <div className="flex items-center justify-between mb-1.5">
                             <div className="text-[10px] text-primary-gray-600 uppercase tracking-wider">Password</div>
@@ -135,7 +148,7 @@ const DatabaseDetailsModal = ({ database, isOpen, onClose, onAction }) => {
                                 }
                               </button>
                               <button
-                                onClick={() => handleCopy(database.password)}
+                                onClick={() => handleCopy(password)}
                                 className="text-[11px] font-medium text-primary-gray-500 hover:text-white transition-colors px-2 py-0.5 rounded hover:bg-white/[0.06]"
                               >
                                 Copy
@@ -143,7 +156,7 @@ const DatabaseDetailsModal = ({ database, isOpen, onClose, onAction }) => {
                             </div>
                           </div>
                           <div className="text-base font-mono font-medium text-white">
-                            {showPassword ? database.password : '••••••••••••'}
+                            {showPassword ? password : '••••••••••••'}
                           </div>
                         </div>
                       )}
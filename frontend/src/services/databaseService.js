@@ -44,6 +44,13 @@ const databaseService = {
   },
 
 
+  // Passwords are not part of regular responses; fetch them on demand
+  getCredentials: async (id) => {
+    const response = await api.get(`/databases/${id}/credentials`);
+    return response.data;
+  },
+
+
   stopDatabase: async (id) => {
     const response = await api.post(`/databases/${id}/stop`);
     return response.data;
@@ -55,13 +62,46 @@ const databaseService = {
     return response.data;
   },
 
-  getConsoleLogs: async (id, tail = 100, filter = '') => {
+  /**
+   * Subscribes to live database status changes (Server-Sent Events).
+   * The browser reconnects on its own and resumes from the last received event.
+   * Returns a function that closes the stream.
+   */
+  subscribeToStatusEvents: ({ onStatus, onResync }) => {
+    const source = new EventSource(`${API_BASE_URL}/databases/events`);
+    source.addEventListener('status', (event) => onStatus(JSON.parse(event.data)));
+    source.addEventListener('resync', () => onResync());
+    return () => source.close();
+  },
+
+  /**
+   * Fetches the last `tail` log lines. Options: regex, ignoreCase, since, until (ISO-8601).
+   */
+  getConsoleLogs: async (id, tail = 100, filter = '', { regex, ignoreCase, since, until } = {}) => {
     const params = { tail };
     if (filter) params.filter = filter;
+    if (regex) params.regex = true;
+    if (ignoreCase) params.ignoreCase = true;
+    if (since) params.since = since;
+    if (until) params.until = until;
     const response = await api.get(`/databases/${id}/logs`, { params });
     return response.data;
   },
 
+  /**
+   * Follows container logs over Server-Sent Events, starting with the last `tail` lines.
+   * Returns a function that closes the stream (and the backend's Docker log stream with it).
+   */
+  followConsoleLogs: (id, tail = 100, { onLines, onEnd }) => {
+    const source = new EventSource(`${API_BASE_URL}/databases/${id}/logs/stream?tail=${tail}`);
+    source.addEventListener('log', (event) => onLines(event.data.split('\n')));
+    source.addEventListener('end', () => {
+      source.close();
+      onEnd();
+    });
+    return () => source.close();
+  },
+
   getConsoleInspect: async (id) => {
     const response = await api.get(`/databases/${id}/inspect`);
     return response.data;